@@ -0,0 +1,104 @@
+package com.example.ordersapp.loadtest;
+
+import static io.gatling.javaapi.core.CoreDsl.StringBody;
+import static io.gatling.javaapi.core.CoreDsl.constantUsersPerSec;
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.global;
+import static io.gatling.javaapi.core.CoreDsl.jsonPath;
+import static io.gatling.javaapi.core.CoreDsl.percent;
+import static io.gatling.javaapi.core.CoreDsl.rampUsersPerSec;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Mixed read and write traffic against the order and product endpoints. Ids are drawn from the ranges created by the
+ * {@code perf} Liquibase context, so the defaults match {@code application-perf.yaml}. Every system property below
+ * can be overridden on the Maven command line, e.g. {@code -DusersPerSec=200 -Dduration=10m}.
+ * <p>
+ * Latency percentiles (p50 to p99) and throughput are printed at the end of the run, the full HTML report is written
+ * to {@code target/gatling}.
+ */
+public class OrdersApiSimulation extends Simulation {
+
+    private static final String BASE_URL = System.getProperty("baseUrl", "http://localhost:8080");
+    private static final long CUSTOMERS = Long.getLong("perfCustomers", 1_000_000);
+    private static final long PRODUCTS = Long.getLong("perfProducts", 10_000);
+    private static final long ORDERS = Long.getLong("perfOrders", 2_000_000);
+    private static final double USERS_PER_SEC = Double.parseDouble(System.getProperty("usersPerSec", "50"));
+    private static final Duration RAMP_UP = Duration.parse("PT" + System.getProperty("rampUp", "30s"));
+    private static final Duration DURATION = Duration.parse("PT" + System.getProperty("duration", "5m"));
+    private static final double MAX_FAILED_PERCENT = Double.parseDouble(System.getProperty("maxFailedPercent", "1"));
+
+    // Fixed seed, so two runs against the same data set request the same ids in the same order
+    private final Random random = new Random(Long.getLong("seed", 42));
+
+    private final Iterator<Map<String, Object>> ids = Stream.generate(() -> Map.<String, Object>of(
+            "customerId", randomId(CUSTOMERS),
+            "orderId", randomId(ORDERS),
+            "productId", randomId(PRODUCTS),
+            "secondProductId", randomId(PRODUCTS),
+            "page", random.nextInt(50)))
+        .iterator();
+
+    private final HttpProtocolBuilder httpProtocol = http
+        .baseUrl(BASE_URL)
+        .acceptHeader("application/json")
+        .contentTypeHeader("application/json");
+
+    private final ChainBuilder browseOrders = exec(
+        http("orders page").get("/api/v1/orders?page=#{page}&size=20"),
+        http("orders of customer").get("/api/v1/orders?customerId=#{customerId}&size=20"),
+        http("orders cursor").get("/api/v1/orders/cursor?size=20")
+            .check(jsonPath("$.nextCursor").optional().saveAs("nextCursor")))
+        .doIf(session -> session.contains("nextCursor")).then(
+            exec(http("orders cursor next").get("/api/v1/orders/cursor?size=20&after=#{nextCursor}")))
+        .exec(http("order details").get("/api/v1/orders/#{orderId}"));
+
+    private final ChainBuilder browseProducts = exec(
+        http("product").get("/api/v1/products/#{productId}"),
+        http("products page").get("/api/v1/products?page=#{page}&size=20"));
+
+    private final ChainBuilder placeOrder = exec(
+        http("place order").post("/api/v1/orders")
+            .body(StringBody("""
+                {
+                  "customerId": #{customerId},
+                  "paymentMethod": "CARD",
+                  "orderItems": [
+                    {"product": {"id": #{productId}}, "quantity": 1},
+                    {"product": {"id": #{secondProductId}}, "quantity": 2}
+                  ]
+                }
+                """))
+            .check(status().is(201)));
+
+    private final ScenarioBuilder ordersApi = scenario("Orders API")
+        .feed(ids)
+        .randomSwitch().on(
+            percent(60).then(browseOrders),
+            percent(30).then(browseProducts),
+            percent(10).then(placeOrder));
+
+    {
+        setUp(ordersApi.injectOpen(
+            rampUsersPerSec(1).to(USERS_PER_SEC).during(RAMP_UP),
+            constantUsersPerSec(USERS_PER_SEC).during(DURATION)))
+            .protocols(httpProtocol)
+            .assertions(global().failedRequests().percent().lt(MAX_FAILED_PERCENT));
+    }
+
+    private long randomId(long count) {
+        return 1 + (long) (random.nextDouble() * count);
+    }
+}
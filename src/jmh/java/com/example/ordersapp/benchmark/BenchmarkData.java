@@ -0,0 +1,128 @@
+package com.example.ordersapp.benchmark;
+
+import com.example.ordersapp.orders.model.Customer;
+import com.example.ordersapp.orders.model.Order;
+import com.example.ordersapp.orders.model.OrderItem;
+import com.example.ordersapp.orders.model.Product;
+import com.example.ordersapp.orders.model.dto.CustomerDto;
+import com.example.ordersapp.orders.model.dto.NewOrderDto;
+import com.example.ordersapp.orders.model.dto.OrderDetailsDto;
+import com.example.ordersapp.orders.model.dto.OrderInfoDto;
+import com.example.ordersapp.orders.model.dto.OrderItemDto;
+import com.example.ordersapp.orders.model.dto.ProductDto;
+import com.example.ordersapp.orders.model.dto.projection.OrderHeaderRow;
+import com.example.ordersapp.orders.model.dto.projection.OrderItemRow;
+import com.example.ordersapp.orders.model.enums.OrderStatus;
+import com.example.ordersapp.orders.model.enums.PaymentMethod;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Realistic, deterministic fixtures shared by the benchmarks
+ */
+final class BenchmarkData {
+
+    static final LocalDateTime ORDER_DATE = LocalDateTime.of(2024, 10, 14, 12, 30);
+
+    private BenchmarkData() {
+    }
+
+    static CustomerDto customerDto() {
+        return new CustomerDto(1L, "Jan", "Kowalski", "jan.kowalski@example.com", "Ul. Kwiatowa 12", "Warszawa",
+            "00-001", "Polska", "123456789");
+    }
+
+    static Customer customer() {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setFirstName("Jan");
+        customer.setLastName("Kowalski");
+        customer.setEmail("jan.kowalski@example.com");
+        customer.setAddress("Ul. Kwiatowa 12");
+        customer.setCity("Warszawa");
+        customer.setPostalCode("00-001");
+        customer.setCountry("Polska");
+        customer.setPhone("123456789");
+        return customer;
+    }
+
+    static ProductDto productDto(long id) {
+        return new ProductDto(id, "SKU-" + id, "Product " + id, "Description of product " + id, price(id), 100);
+    }
+
+    static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setDescription("Description of product " + id);
+        product.setPrice(price(id));
+        product.setStockQuantity(100);
+        return product;
+    }
+
+    static List<OrderItemDto> orderItemDtos(int lines) {
+        return IntStream.rangeClosed(1, lines)
+            .mapToObj(line -> new OrderItemDto((long) line, productDto(line), line % 5 + 1, price(line)))
+            .toList();
+    }
+
+    static OrderDetailsDto orderDetailsDto(int lines) {
+        Order order = order(lines);
+        return new OrderDetailsDto(1L, customerDto(), orderItemDtos(lines), order.getTotalItems(),
+            order.getTotalPrice(), OrderStatus.CREATED, PaymentMethod.CARD, ORDER_DATE);
+    }
+
+    static NewOrderDto newOrderDto(int lines) {
+        return new NewOrderDto(null, 1L, orderItemDtos(lines), null, PaymentMethod.CARD, null);
+    }
+
+    static Order order(int lines) {
+        Order order = new Order();
+        order.setId(1L);
+        order.setCustomer(customer());
+        order.setStatus(OrderStatus.CREATED);
+        order.setPaymentMethod(PaymentMethod.CARD);
+        order.setOrderDate(ORDER_DATE);
+        order.setOrderItems(IntStream.rangeClosed(1, lines)
+            .mapToObj(line -> {
+                OrderItem orderItem = new OrderItem();
+                orderItem.setId((long) line);
+                orderItem.setOrder(order);
+                orderItem.setProduct(product(line));
+                orderItem.setQuantity(line % 5 + 1);
+                orderItem.setUnitPrice(price(line));
+                return orderItem;
+            })
+            .toList());
+        order.recalculateTotals();
+        return order;
+    }
+
+    static OrderHeaderRow orderHeaderRow(int lines) {
+        CustomerDto customer = customerDto();
+        Order order = order(lines);
+        return new OrderHeaderRow(1L, customer.id(), customer.firstName(), customer.lastName(), customer.email(),
+            customer.address(), customer.city(), customer.postalCode(), customer.country(), customer.phone(),
+            OrderStatus.CREATED, PaymentMethod.CARD, ORDER_DATE, order.getTotalItems(), order.getTotalPrice());
+    }
+
+    static List<OrderItemRow> orderItemRows(int lines) {
+        return IntStream.rangeClosed(1, lines)
+            .mapToObj(line -> new OrderItemRow((long) line, (long) line, "SKU-" + line, "Product " + line,
+                "Description of product " + line, price(line), 100, line % 5 + 1, price(line)))
+            .toList();
+    }
+
+    static List<OrderInfoDto> orderInfoDtos(int size) {
+        return IntStream.rangeClosed(1, size)
+            .mapToObj(id -> new OrderInfoDto((long) id, (long) id % 10 + 1, OrderStatus.values()[id % 5],
+                PaymentMethod.CARD, ORDER_DATE.minusMinutes(id), id % 10 + 1, price(id)))
+            .toList();
+    }
+
+    private static BigDecimal price(long seed) {
+        return BigDecimal.valueOf(999 + seed * 37 % 10_000, 2);
+    }
+}
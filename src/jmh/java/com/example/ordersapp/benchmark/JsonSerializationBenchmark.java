@@ -0,0 +1,61 @@
+package com.example.ordersapp.benchmark;
+
+import com.example.ordersapp.orders.model.dto.OrderDetailsDto;
+import com.example.ordersapp.orders.model.dto.OrderInfoDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Response bodies of the order list and order details endpoints, serialized with an {@link ObjectMapper} configured
+ * the same way Spring Boot configures the one used by the controllers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int size;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Page<OrderInfoDto> orderPage;
+    private OrderDetailsDto orderDetails;
+
+    @Setup
+    public void setUp() {
+        orderPage = new PageImpl<>(BenchmarkData.orderInfoDtos(size),
+            PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "orderDate", "id")), 10_000);
+        orderDetails = BenchmarkData.orderDetailsDto(size);
+    }
+
+    @Benchmark
+    public byte[] orderInfoPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(orderPage);
+    }
+
+    @Benchmark
+    public byte[] orderDetails() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(orderDetails);
+    }
+}
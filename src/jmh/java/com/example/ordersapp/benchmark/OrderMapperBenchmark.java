@@ -0,0 +1,67 @@
+package com.example.ordersapp.benchmark;
+
+import com.example.ordersapp.orders.model.Order;
+import com.example.ordersapp.orders.model.dto.NewOrderDto;
+import com.example.ordersapp.orders.model.dto.OrderDetailsDto;
+import com.example.ordersapp.orders.model.dto.mapper.OrderMapper;
+import com.example.ordersapp.orders.model.dto.projection.OrderHeaderRow;
+import com.example.ordersapp.orders.model.dto.projection.OrderItemRow;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MapStruct conversions done on every order placement and order details read
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class OrderMapperBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int lines;
+
+    private final OrderMapper orderMapper = Mappers.getMapper(OrderMapper.class);
+
+    private NewOrderDto newOrderDto;
+    private Order order;
+    private OrderHeaderRow orderHeaderRow;
+    private List<OrderItemRow> orderItemRows;
+
+    @Setup
+    public void setUp() {
+        newOrderDto = BenchmarkData.newOrderDto(lines);
+        order = BenchmarkData.order(lines);
+        orderHeaderRow = BenchmarkData.orderHeaderRow(lines);
+        orderItemRows = BenchmarkData.orderItemRows(lines);
+    }
+
+    @Benchmark
+    public Order newOrderDtoToEntity() {
+        return orderMapper.toEntity(newOrderDto);
+    }
+
+    @Benchmark
+    public OrderDetailsDto orderToDetailsDto() {
+        return orderMapper.toOrderDetailsDto(order);
+    }
+
+    @Benchmark
+    public OrderDetailsDto projectionRowsToDetailsDto() {
+        return orderMapper.toOrderDetailsDto(orderHeaderRow, orderItemRows);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.ordersapp.benchmark;
+
+import com.example.ordersapp.orders.model.Order;
+import com.example.ordersapp.orders.model.enums.OrderStatus;
+import com.example.ordersapp.orders.validation.OrderStatusTransitionValidator;
+import jakarta.validation.ValidationException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Accepted transitions return immediately, rejected ones pay for building the message and the exception
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class OrderStatusTransitionBenchmark {
+
+    private Order createdOrder;
+
+    @Setup
+    public void setUp() {
+        createdOrder = BenchmarkData.order(1);
+        createdOrder.setStatus(OrderStatus.CREATED);
+    }
+
+    @Benchmark
+    public Order validTransition() {
+        OrderStatusTransitionValidator.validate(createdOrder, OrderStatus.ACCEPTED);
+        return createdOrder;
+    }
+
+    @Benchmark
+    public ValidationException invalidTransition() {
+        try {
+            OrderStatusTransitionValidator.validate(createdOrder, OrderStatus.DELIVERED);
+            return null;
+        } catch (ValidationException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.ordersapp.benchmark;
+
+import com.example.ordersapp.orders.model.Order;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Order#recalculateTotals()} sums item quantities and {@code BigDecimal} line totals once per write, reads take
+ * the persisted totals as they are
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class OrderTotalsBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int lines;
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        order = BenchmarkData.order(lines);
+    }
+
+    @Benchmark
+    public BigDecimal recalculateTotals() {
+        order.recalculateTotals();
+        return order.getTotalPrice();
+    }
+}
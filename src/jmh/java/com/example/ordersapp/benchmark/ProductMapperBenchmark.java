@@ -0,0 +1,50 @@
+package com.example.ordersapp.benchmark;
+
+import com.example.ordersapp.orders.model.Product;
+import com.example.ordersapp.orders.model.dto.ProductDto;
+import com.example.ordersapp.orders.model.dto.mapper.ProductMapper;
+import java.util.concurrent.TimeUnit;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Product conversions, done for every line when an order is mapped from its entity
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ProductMapperBenchmark {
+
+    private final ProductMapper productMapper = Mappers.getMapper(ProductMapper.class);
+
+    private Product product;
+    private ProductDto productDto;
+
+    @Setup
+    public void setUp() {
+        product = BenchmarkData.product(1);
+        productDto = BenchmarkData.productDto(1);
+    }
+
+    @Benchmark
+    public ProductDto productToDto() {
+        return productMapper.toDto(product);
+    }
+
+    @Benchmark
+    public Product productDtoToEntity() {
+        return productMapper.toEntity(productDto);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.ordersapp.benchmark;
+
+import com.example.ordersapp.orders.model.Product;
+import com.example.ordersapp.orders.model.enums.ProductMatchMode;
+import com.example.ordersapp.orders.service.impl.ProductSearchIndex;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Product name searches answered by {@link ProductSearchIndex}, which only compares the texts of products sharing
+ * trigrams with the searched words. Names are combined from a small vocabulary, so common words match many products.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ProductSearchIndexBenchmark {
+
+    private static final List<String> WORDS = List.of("laptop", "gamingowy", "monitor", "klawiatura", "mysz",
+        "słuchawki", "głośnik", "bezprzewodowy", "torba", "plecak", "zegarek", "smart", "kabel", "ładowarka",
+        "telefon", "tablet", "drukarka", "router", "kamera", "mikrofon", "czarny", "biały", "srebrny", "mały",
+        "duży", "szybki", "cichy", "podróżny", "biurowy", "sportowy");
+
+    @Param({"1000", "10000"})
+    private int products;
+
+    private ProductSearchIndex productSearchIndex;
+
+    @Setup
+    public void setUp() {
+        // Outside of a transaction indexed products are searchable right away, no repository or rebuilds are needed
+        productSearchIndex = new ProductSearchIndex(null, null);
+        for (long id = 1; id <= products; id++) {
+            Product product = BenchmarkData.product(id);
+            product.setName(word(id, 1) + " " + word(id, 2) + " " + id);
+            product.setDescription(word(id, 3) + " " + word(id, 4) + " " + word(id, 5));
+            productSearchIndex.index(product);
+        }
+    }
+
+    @Benchmark
+    public List<Long> prefix() {
+        return productSearchIndex.search("kla", ProductMatchMode.PREFIX);
+    }
+
+    @Benchmark
+    public List<Long> substring() {
+        return productSearchIndex.search("przewod", ProductMatchMode.SUBSTRING);
+    }
+
+    @Benchmark
+    public List<Long> fuzzy() {
+        return productSearchIndex.search("klawiatrua bezprzewdowa", ProductMatchMode.FUZZY);
+    }
+
+    private static String word(long id, int position) {
+        return WORDS.get((int) Math.floorMod(id * 2654435761L * position, WORDS.size()));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.ordersapp.config;
+
+import com.example.ordersapp.config.CacheProperties.CacheSpec;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String PRODUCTS_CACHE = "products";
+    public static final String PRODUCT_STOCK_CACHE = "productStock";
+
+    // Regions of the Hibernate second-level cache, sized in hibernate-cache.conf
+    public static final String CUSTOMERS_REGION = "entity.customers";
+    public static final String PRODUCTS_REGION = "entity.products";
+    public static final String PRODUCT_LIST_REGION = "query.product-list";
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(PRODUCTS_CACHE, buildCache(cacheProperties.products()));
+        cacheManager.registerCustomCache(PRODUCT_STOCK_CACHE, buildCache(cacheProperties.productStock()));
+
+        // Evictions are applied after commit, so a concurrent reader cannot re-cache the pre-update row
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    private static Cache<Object, Object> buildCache(CacheSpec cacheSpec) {
+        return Caffeine.newBuilder()
+            .maximumSize(cacheSpec.maximumSize())
+            .expireAfterWrite(cacheSpec.timeToLive())
+            .recordStats()
+            .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.ordersapp.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("ordersapp.cache")
+public record CacheProperties(
+    @DefaultValue CacheSpec products,
+    @DefaultValue CacheSpec productStock
+) {
+
+    public record CacheSpec(
+        @DefaultValue("10000") long maximumSize,
+        @DefaultValue("10m") Duration timeToLive
+    ) {
+
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.ordersapp.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param timeToLive     how long the response to an idempotency key is replayed after the order was created
+ * @param maximumSize    responses kept in memory at most, older ones are still replayed from the database
+ * @param purgeInterval  pause between deletions of expired keys from the database
+ * @param purgeBatchSize expired keys deleted in one statement
+ */
+@ConfigurationProperties("ordersapp.idempotency")
+public record IdempotencyProperties(
+    @DefaultValue("24h") Duration timeToLive,
+    @DefaultValue("10000") long maximumSize,
+    @DefaultValue("10m") Duration purgeInterval,
+    @DefaultValue("1000") int purgeBatchSize
+) {
+
+}
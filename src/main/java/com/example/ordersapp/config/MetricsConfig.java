@@ -0,0 +1,25 @@
+package com.example.ordersapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Service timers come from {@code @Timed}, enabled by {@code management.observations.annotations.enabled}. Hibernate's
+ * own statistics are totals over all sessions, statements per request are counted here instead.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounting() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    @Bean
+    public SqlStatementMetricsFilter sqlStatementMetricsFilter(MeterRegistry meterRegistry) {
+        return new SqlStatementMetricsFilter(meterRegistry);
+    }
+}
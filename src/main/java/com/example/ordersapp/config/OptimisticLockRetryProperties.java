@@ -0,0 +1,19 @@
+package com.example.ordersapp.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param maxAttempts    attempts of an update losing its optimistic lock, including the first one
+ * @param initialBackoff upper bound of the random pause before the first retry, doubled for every further one
+ * @param maxBackoff     upper bound the doubling stops at
+ */
+@ConfigurationProperties("ordersapp.optimistic-lock-retry")
+public record OptimisticLockRetryProperties(
+    @DefaultValue("4") int maxAttempts,
+    @DefaultValue("50ms") Duration initialBackoff,
+    @DefaultValue("500ms") Duration maxBackoff
+) {
+
+}
@@ -0,0 +1,10 @@
+package com.example.ordersapp.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(OrderIntakeProperties.class)
+public class OrderIntakeConfig {
+
+}
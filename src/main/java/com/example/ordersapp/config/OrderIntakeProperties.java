@@ -0,0 +1,24 @@
+package com.example.ordersapp.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param capacity        orders waiting in the intake queue, further submissions are rejected with 429
+ * @param batchSize       queued orders created in one transaction, at most the batch endpoint limit
+ * @param statusRetention how long the outcome of a queued order can be looked up after it was submitted
+ * @param maximumStatuses outcomes of created or failed orders kept at most, the oldest are dropped first. Statuses of
+ *                        queued orders are always kept.
+ * @param shutdownTimeout how long shutdown waits for the queue to drain
+ */
+@ConfigurationProperties("ordersapp.order-intake")
+public record OrderIntakeProperties(
+    @DefaultValue("10000") int capacity,
+    @DefaultValue("100") int batchSize,
+    @DefaultValue("15m") Duration statusRetention,
+    @DefaultValue("100000") long maximumStatuses,
+    @DefaultValue("30s") Duration shutdownTimeout
+) {
+
+}
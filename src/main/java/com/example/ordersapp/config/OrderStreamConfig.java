@@ -0,0 +1,33 @@
+package com.example.ordersapp.config;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+import java.lang.management.ManagementFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(OrderStreamProperties.class)
+public class OrderStreamConfig {
+
+    /**
+     * Every open order stream holds a connection and with it a file descriptor, so {@code server.tomcat.max-connections}
+     * is only reachable below the process's descriptor limit. Past it new connections fail instead of queueing.
+     */
+    @Bean
+    public ApplicationRunner fileDescriptorLimitCheck(ServerProperties serverProperties) {
+        return args -> {
+            int maxConnections = serverProperties.getTomcat().getMaxConnections();
+            if (ManagementFactory.getOperatingSystemMXBean() instanceof UnixOperatingSystemMXBean os
+                && os.getMaxFileDescriptorCount() < maxConnections) {
+                log.warn("Tomcat accepts up to {} connections, but only {} file descriptors can be open, "
+                    + "raise the limit (ulimit -n) to serve that many order streams", maxConnections,
+                    os.getMaxFileDescriptorCount());
+            }
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.ordersapp.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param timeout                     streams are closed after this time, clients reconnect on their own
+ * @param heartbeatInterval           comment sent on idle streams, keeps proxies from closing them and detects gone
+ *                                    clients
+ * @param maxSubscriptionsPerCustomer open streams per customer, further ones are rejected with 429
+ */
+@ConfigurationProperties("ordersapp.order-stream")
+public record OrderStreamProperties(
+    @DefaultValue("30m") Duration timeout,
+    @DefaultValue("30s") Duration heartbeatInterval,
+    @DefaultValue("20") int maxSubscriptionsPerCustomer
+) {
+
+}
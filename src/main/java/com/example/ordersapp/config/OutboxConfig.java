@@ -0,0 +1,25 @@
+package com.example.ordersapp.config;
+
+import com.example.ordersapp.orders.service.impl.FileOrderEventSink;
+import com.example.ordersapp.orders.service.impl.InMemoryOrderEventSink;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "ordersapp.outbox.sink", havingValue = "memory", matchIfMissing = true)
+    public InMemoryOrderEventSink inMemoryOrderEventSink(OutboxProperties properties) {
+        return new InMemoryOrderEventSink(properties.memoryCapacity());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "ordersapp.outbox.sink", havingValue = "file")
+    public FileOrderEventSink fileOrderEventSink(OutboxProperties properties) {
+        return new FileOrderEventSink(properties.file());
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.ordersapp.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param sink           {@code memory} or {@code file}, any other value leaves it to an own {@code OrderEventSink} bean
+ * @param file           file the {@code file} sink appends messages to, one JSON document per line
+ * @param memoryCapacity most recent messages the {@code memory} sink keeps
+ * @param batchSize      messages relayed and deleted in one transaction
+ * @param pollInterval   pause between relay runs, a run relays until the outbox is empty
+ */
+@ConfigurationProperties("ordersapp.outbox")
+public record OutboxProperties(
+    @DefaultValue("memory") String sink,
+    @DefaultValue("order-events.ndjson") Path file,
+    @DefaultValue("10000") int memoryCapacity,
+    @DefaultValue("500") int batchSize,
+    @DefaultValue("1s") Duration pollInterval
+) {
+
+}
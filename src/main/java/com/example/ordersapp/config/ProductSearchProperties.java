@@ -0,0 +1,16 @@
+package com.example.ordersapp.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param rebuildInterval pause between rebuilds of the search index from the database, picks up products written
+ *                        through other instances
+ */
+@ConfigurationProperties("ordersapp.product-search")
+public record ProductSearchProperties(
+    @DefaultValue("5m") Duration rebuildInterval
+) {
+
+}
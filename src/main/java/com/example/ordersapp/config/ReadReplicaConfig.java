@@ -0,0 +1,50 @@
+package com.example.ordersapp.config;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Active with {@code ordersapp.read-replicas.enabled=true}. Transactions marked read-only read from the replicas,
+ * everything else, including Liquibase, keeps using the data source configured by {@code spring.datasource}. Replicas
+ * lagging more than the configured maximum are skipped, reads go to the primary when no replica is left.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ordersapp.read-replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaConfig {
+
+    public static final String PRIMARY_DATA_SOURCE = "dataSource";
+
+    @Bean(destroyMethod = "close")
+    public ReadReplicas readReplicas(ReadReplicaProperties properties) {
+        return new ReadReplicas(properties);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(JdbcTemplate jdbcTemplate, ReadReplicas readReplicas,
+        ReadReplicaProperties properties) {
+        return new ReplicaLagMonitor(jdbcTemplate, readReplicas, properties);
+    }
+
+    /**
+     * Wraps the auto-configured data source, so it keeps its pool settings and metrics
+     */
+    @Bean
+    public static BeanPostProcessor replicaRoutingPostProcessor(ObjectProvider<ReadReplicas> readReplicas) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource primary && PRIMARY_DATA_SOURCE.equals(beanName)) {
+                    return ReplicaRoutingDataSource.wrap(primary, readReplicas.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
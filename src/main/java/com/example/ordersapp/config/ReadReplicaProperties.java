@@ -0,0 +1,28 @@
+package com.example.ordersapp.config;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled          routes read-only transactions to the replicas
+ * @param urls             JDBC URLs of the replicas
+ * @param username         user of the replicas
+ * @param password         password of the user
+ * @param maximumPoolSize  connections per replica
+ * @param maxLag           replicas further behind the primary are not read from until they catch up
+ * @param lagCheckInterval pause between heartbeats written to the primary, the lag is overestimated by up to this
+ */
+@ConfigurationProperties("ordersapp.read-replicas")
+public record ReadReplicaProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue List<String> urls,
+    String username,
+    String password,
+    @DefaultValue("10") int maximumPoolSize,
+    @DefaultValue("5s") Duration maxLag,
+    @DefaultValue("1s") Duration lagCheckInterval
+) {
+
+}
@@ -0,0 +1,133 @@
+package com.example.ordersapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Connection pools of the replicas with the lag last measured on each. A replica is only read from while its lag is
+ * known and at most the configured maximum, so replicas count as lagging until the first heartbeat reaches them.
+ */
+@Slf4j
+public class ReadReplicas implements AutoCloseable {
+
+    private static final Duration CONNECTION_TIMEOUT = Duration.ofSeconds(1);
+
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadReplicas(ReadReplicaProperties properties) {
+        this(createReplicas(properties), properties.maxLag());
+    }
+
+    ReadReplicas(List<Replica> replicas, Duration maxLag) {
+        this.replicas = replicas;
+        this.maxLag = maxLag;
+    }
+
+    /**
+     * @return next replica in turn whose lag is within the maximum, empty if all lag behind or cannot be reached
+     */
+    public Optional<DataSource> next() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isUsable(maxLag)) {
+                return Optional.of(replica.dataSource);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Measures the lag of every replica as the time since the heartbeat it has most recently received was written
+     *
+     * @param primaryNow current time of the primary, the clock the heartbeats are written with
+     */
+    public void checkLag(LocalDateTime primaryNow) {
+        for (Replica replica : replicas) {
+            replica.checkLag(primaryNow, maxLag);
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private static List<Replica> createReplicas(ReadReplicaProperties properties) {
+        if (properties.urls().isEmpty()) {
+            throw new IllegalArgumentException("Read replicas enabled without any replica url");
+        }
+        int queryTimeoutSeconds = (int) Math.max(1, properties.lagCheckInterval().toSeconds());
+        return IntStream.range(0, properties.urls().size())
+            .mapToObj(index -> {
+                HikariDataSource dataSource = createPool(properties, index);
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+                jdbcTemplate.setQueryTimeout(queryTimeoutSeconds);
+                return new Replica(dataSource, jdbcTemplate);
+            })
+            .toList();
+    }
+
+    private static HikariDataSource createPool(ReadReplicaProperties properties, int index) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica-" + index);
+        dataSource.setJdbcUrl(properties.urls().get(index));
+        dataSource.setUsername(properties.username());
+        dataSource.setPassword(properties.password());
+        dataSource.setMaximumPoolSize(properties.maximumPoolSize());
+        dataSource.setConnectionTimeout(CONNECTION_TIMEOUT.toMillis());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    static final class Replica {
+
+        private final HikariDataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private volatile Duration lag;
+
+        Replica(HikariDataSource dataSource, JdbcTemplate jdbcTemplate) {
+            this.dataSource = dataSource;
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        private boolean isUsable(Duration maxLag) {
+            Duration currentLag = lag;
+            return currentLag != null && currentLag.compareTo(maxLag) <= 0;
+        }
+
+        private void checkLag(LocalDateTime primaryNow, Duration maxLag) {
+            boolean wasUsable = isUsable(maxLag);
+            try {
+                Timestamp beatAt = jdbcTemplate.queryForObject(
+                    "SELECT beat_at FROM replica_heartbeat WHERE id = 1", Timestamp.class);
+                lag = beatAt == null ? null : Duration.between(beatAt.toLocalDateTime(), primaryNow);
+            } catch (RuntimeException ex) {
+                lag = null;
+                if (wasUsable) {
+                    log.warn("Replica {} cannot be reached, reading from the primary instead",
+                        dataSource.getPoolName(), ex);
+                }
+                return;
+            }
+            if (wasUsable && !isUsable(maxLag)) {
+                log.warn("Replica {} lags {} ms behind the primary, reading from the primary until it catches up",
+                    dataSource.getPoolName(), lag.toMillis());
+            } else if (!wasUsable && isUsable(maxLag)) {
+                log.info("Replica {} is {} ms behind the primary, reading from it", dataSource.getPoolName(),
+                    lag.toMillis());
+            }
+        }
+    }
+}
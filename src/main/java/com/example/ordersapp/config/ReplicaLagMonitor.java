@@ -0,0 +1,39 @@
+package com.example.ordersapp.config;
+
+import java.sql.Timestamp;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Writes the primary's current time to the heartbeat row and reads it back from every replica. The replica's copy is
+ * as old as its lag plus at most the time since the last heartbeat of any instance. It is compared with the primary's
+ * time as well, so the clocks of the application instances, which may be skewed against each other, are never used.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReplicaLagMonitor implements SchedulingConfigurer {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadReplicas readReplicas;
+    private final ReadReplicaProperties properties;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::beat, properties.lagCheckInterval());
+    }
+
+    public void beat() {
+        Timestamp primaryNow;
+        try {
+            jdbcTemplate.update("UPDATE replica_heartbeat SET beat_at = NOW(6) WHERE id = 1");
+            primaryNow = jdbcTemplate.queryForObject("SELECT NOW(6)", Timestamp.class);
+        } catch (RuntimeException ex) {
+            log.error("Failed to write replica heartbeat, retrying in {}", properties.lagCheckInterval(), ex);
+            return;
+        }
+        readReplicas.checkLag(primaryNow.toLocalDateTime());
+    }
+}
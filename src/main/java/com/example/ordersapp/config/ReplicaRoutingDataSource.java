@@ -0,0 +1,79 @@
+package com.example.ordersapp.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Source of the connections of read-only transactions. Within a request, the source chosen first is kept for the
+ * rest of it, so later reads never see older data than earlier ones, and once the request has written it reads from
+ * the primary only. Outside requests every transaction takes the next replica.
+ */
+@RequiredArgsConstructor
+class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final String SOURCE_ATTRIBUTE = ReplicaRoutingDataSource.class.getName() + ".source";
+
+    private final DataSource primary;
+    private final ReadReplicas readReplicas;
+
+    /**
+     * Physical connections are only taken when the first statement runs, once the transaction's read-only flag is set
+     */
+    static DataSource wrap(DataSource primary, ReadReplicas readReplicas) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(new WriteTracking(primary));
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, readReplicas));
+        return dataSource;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return determineSource().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return determineSource().getConnection(username, password);
+    }
+
+    private DataSource determineSource() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return readReplicas.next().orElse(primary);
+        }
+        DataSource source = (DataSource) request.getAttribute(SOURCE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (source == null) {
+            source = readReplicas.next().orElse(primary);
+            request.setAttribute(SOURCE_ATTRIBUTE, source, RequestAttributes.SCOPE_REQUEST);
+        }
+        return source;
+    }
+
+    /**
+     * Switches the current request to the primary when a read-write transaction takes a connection
+     */
+    private static class WriteTracking extends DelegatingDataSource {
+
+        private WriteTracking(DataSource primary) {
+            super(primary);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            RequestAttributes request = RequestContextHolder.getRequestAttributes();
+            if (request != null && TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                request.setAttribute(SOURCE_ATTRIBUTE, obtainTargetDataSource(), RequestAttributes.SCOPE_REQUEST);
+            }
+            return connection;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.ordersapp.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Admits as many requests at a time as the connection pool has connections, further requests wait for a permit up to
+ * the connection timeout and then get 503 with {@code Retry-After}. With virtual threads nothing else bounds the
+ * number of concurrent requests, so without it every request beyond the pool size would be parked in Hikari with its
+ * work half done until its checkout timed out. Requests switching to async processing, like order streams, give their
+ * permit back once they return.
+ */
+@Slf4j
+public class RequestBulkheadFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final Duration maxWait;
+
+    public RequestBulkheadFilter(int maxConcurrentRequests, Duration maxWait) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.maxWait = maxWait;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        if (!acquirePermit()) {
+            log.warn("Rejected {} {}, all request permits are taken", request.getMethod(), request.getRequestURI());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "The service is overloaded. Please try again later.");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean acquirePermit() {
+        try {
+            return permits.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.ordersapp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the scheduled tasks of the outbox relay, order stream heartbeats, idempotency key purge, search index rebuild
+ * and replica lag monitor, independently of any of them
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+}
@@ -0,0 +1,25 @@
+package com.example.ordersapp.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Counts the statements Hibernate prepares for the current request, one per batch for batched writes. Statements run
+ * through {@code JdbcTemplate} or outside requests, by schedulers and the order intake, are not counted.
+ */
+class SqlStatementCounter implements StatementInspector {
+
+    static final String COUNT_ATTRIBUTE = SqlStatementCounter.class.getName() + ".count";
+
+    @Override
+    public String inspect(String sql) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null
+            && request.getAttribute(COUNT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof AtomicInteger count) {
+            count.incrementAndGet();
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.ordersapp.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records the number of SQL statements counted by {@link SqlStatementCounter} for every request, tagged like
+ * {@code http.server.requests} with the method and the matched URI pattern
+ */
+@RequiredArgsConstructor
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Endpoint, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        AtomicInteger count = new AtomicInteger();
+        request.setAttribute(SqlStatementCounter.COUNT_ATTRIBUTE, count);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            summaries.computeIfAbsent(new Endpoint(request.getMethod(), uri(request)), this::summary)
+                .record(count.get());
+        }
+    }
+
+    private DistributionSummary summary(Endpoint endpoint) {
+        return DistributionSummary.builder("ordersapp.http.server.sql.statements")
+            .description("SQL statements prepared by Hibernate per request")
+            .tag("method", endpoint.method())
+            .tag("uri", endpoint.uri())
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    private record Endpoint(String method, String uri) {
+
+    }
+}
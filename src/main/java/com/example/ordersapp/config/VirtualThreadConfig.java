@@ -0,0 +1,64 @@
+package com.example.ordersapp.config;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Active with {@code spring.threads.virtual.enabled=true} (the {@code virtual-threads} profile). Spring Boot then runs
+ * Tomcat requests, {@code @Async} tasks and scheduled jobs on virtual threads. Streams JFR pinning events to the log,
+ * so {@code synchronized} blocks holding a carrier thread while blocked on I/O show up with the frames that caused them.
+ * API requests pass a {@link RequestBulkheadFilter} sized to the connection pool.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(VirtualThreadProperties.class)
+public class VirtualThreadConfig {
+
+    private static final int LOGGED_FRAMES = 8;
+
+    @Bean(destroyMethod = "close")
+    public RecordingStream virtualThreadPinnedEvents(VirtualThreadProperties properties) {
+        RecordingStream recordingStream = new RecordingStream();
+        recordingStream.enable("jdk.VirtualThreadPinned")
+            .withThreshold(properties.pinnedThreshold())
+            .withStackTrace();
+        recordingStream.onEvent("jdk.VirtualThreadPinned", VirtualThreadConfig::logPinnedThread);
+        recordingStream.startAsync();
+        return recordingStream;
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestBulkheadFilter> requestBulkheadFilter(
+        @Value("${spring.datasource.hikari.maximum-pool-size}") int maximumPoolSize,
+        @Value("${spring.datasource.hikari.connection-timeout}") long connectionTimeoutMillis) {
+        FilterRegistrationBean<RequestBulkheadFilter> registration = new FilterRegistrationBean<>(
+            new RequestBulkheadFilter(maximumPoolSize, Duration.ofMillis(connectionTimeoutMillis)));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    private static void logPinnedThread(RecordedEvent event) {
+        String frames = event.getStackTrace() == null ? "no stack trace" : event.getStackTrace().getFrames().stream()
+            .limit(LOGGED_FRAMES)
+            .map(VirtualThreadConfig::toString)
+            .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+        log.warn("Virtual thread pinned to its carrier for {} ms{}", event.getDuration().toMillis(), frames);
+    }
+
+    private static String toString(RecordedFrame frame) {
+        return "%s.%s:%d".formatted(frame.getMethod().getType().getName(), frame.getMethod().getName(),
+            frame.getLineNumber());
+    }
+}
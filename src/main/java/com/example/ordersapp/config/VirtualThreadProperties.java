@@ -0,0 +1,15 @@
+package com.example.ordersapp.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param pinnedThreshold virtual threads pinned to their carrier for longer than this are logged with a stack trace
+ */
+@ConfigurationProperties("ordersapp.virtual-threads")
+public record VirtualThreadProperties(
+    @DefaultValue("20ms") Duration pinnedThreshold
+) {
+
+}
@@ -3,14 +3,19 @@ package com.example.ordersapp.exception;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.ValidationException;
+import java.util.concurrent.RejectedExecutionException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
 
 @Slf4j
 @Order
@@ -38,6 +43,17 @@ class RestExceptionHandler {
         return ErrorResponse.create(ex, HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
+    @ExceptionHandler(ResponseStatusException.class)
+    ErrorResponse responseStatusExceptionHandler(ResponseStatusException ex) {
+        // Client errors like insufficient stock or a stale version are part of normal operation, no stack trace needed
+        if (ex.getStatusCode().is5xxServerError()) {
+            log.error("Request failed with status {}", ex.getStatusCode(), ex);
+        } else {
+            log.warn("Request failed with status {}: {}", ex.getStatusCode(), ex.getReason());
+        }
+        return ex;
+    }
+
     @ExceptionHandler(value = {Exception.class})
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     ErrorResponse handleInternalServerError(RuntimeException ex) {
@@ -53,4 +69,31 @@ class RestExceptionHandler {
         String message = "The same data has been modified by another user. Please refresh the page and try again.";
         return ErrorResponse.create(ex, HttpStatus.CONFLICT, message);
     }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    ErrorResponse dataIntegrityViolationHandler(DataIntegrityViolationException ex) {
+        log.error("Data integrity violation", ex);
+        String message = "The request conflicts with existing data, e.g. a product with the same sku.";
+        return ErrorResponse.create(ex, HttpStatus.CONFLICT, message);
+    }
+
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    ErrorResponse connectionUnavailableHandler(CannotCreateTransactionException ex) {
+        log.error("No database connection available", ex);
+        String message = "The service is overloaded. Please try again later.";
+        return ErrorResponse.builder(ex, HttpStatus.SERVICE_UNAVAILABLE, message)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .build();
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    ErrorResponse rejectedExecutionHandler(RejectedExecutionException ex) {
+        log.warn("Request rejected: {}", ex.getMessage());
+        return ErrorResponse.builder(ex, HttpStatus.TOO_MANY_REQUESTS, ex.getMessage())
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .build();
+    }
 }
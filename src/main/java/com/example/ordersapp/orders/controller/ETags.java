@@ -0,0 +1,39 @@
+package com.example.ordersapp.orders.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Strong entity tags of the form {@code "<id>-<version>"}. They follow the version column, so they change with every
+ * committed write of the entity itself, but not with changes of the customer or products embedded in its body.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Long id, int version) {
+        return "\"%d-%d\"".formatted(id, version);
+    }
+
+    /**
+     * @return version required by an {@code If-Match} header, {@code null} if there is none or it is {@code *}
+     */
+    static Integer expectedVersion(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String eTag = ifMatch.trim();
+        String prefix = "\"" + id + "-";
+        if (eTag.startsWith(prefix) && eTag.endsWith("\"") && eTag.length() > prefix.length() + 1) {
+            try {
+                return Integer.valueOf(eTag.substring(prefix.length(), eTag.length() - 1));
+            } catch (NumberFormatException ex) {
+                // Not one of our tags, so it cannot match either
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+            "If-Match must be a single entity tag of resource " + id);
+    }
+}
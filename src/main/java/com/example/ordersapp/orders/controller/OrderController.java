@@ -1,21 +1,40 @@
 package com.example.ordersapp.orders.controller;
 
 import com.example.ordersapp.orders.model.dto.NewOrderDto;
+import com.example.ordersapp.orders.model.dto.OrderBatchResultDto;
+import com.example.ordersapp.orders.model.dto.OrderCursor;
+import com.example.ordersapp.orders.model.dto.OrderCursorPageDto;
 import com.example.ordersapp.orders.model.dto.OrderDetailsDto;
+import com.example.ordersapp.orders.model.dto.OrderExportParams;
 import com.example.ordersapp.orders.model.dto.OrderInfoDto;
+import com.example.ordersapp.orders.model.dto.OrderIntakeStatusDto;
 import com.example.ordersapp.orders.model.dto.OrderSearchParams;
+import com.example.ordersapp.orders.model.enums.FileFormat;
+import com.example.ordersapp.orders.model.enums.OrderSortField;
+import com.example.ordersapp.orders.service.IdempotentOrderService;
+import com.example.ordersapp.orders.service.OrderExportService;
+import com.example.ordersapp.orders.service.OrderIntakeService;
 import com.example.ordersapp.orders.service.OrderService;
+import com.example.ordersapp.orders.service.OrderStatusStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.net.URI;
+import java.util.List;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,9 +43,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestController
@@ -34,14 +56,24 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 @RequiredArgsConstructor
 public class OrderController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final OrderService orderService;
+    private final IdempotentOrderService idempotentOrderService;
+    private final OrderExportService orderExportService;
+    private final OrderIntakeService orderIntakeService;
+    private final OrderStatusStreamService orderStatusStreamService;
 
     @Operation(summary = "Crate new order")
     @ApiResponse(responseCode = "201", description = "Order created")
     @ApiResponse(responseCode = "400", description = "Validation error")
+    @ApiResponse(responseCode = "422", description = "Idempotency key used for a different order", content = @Content)
     @PostMapping
-    public ResponseEntity<NewOrderDto> createOrder(@Valid @RequestBody NewOrderDto orderDto) {
-        NewOrderDto createdOrderDto = orderService.createOrder(orderDto);
+    public ResponseEntity<NewOrderDto> createOrder(@Valid @RequestBody NewOrderDto orderDto,
+        @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        NewOrderDto createdOrderDto = idempotencyKey == null
+            ? orderService.createOrder(orderDto)
+            : idempotentOrderService.createOrder(idempotencyKey, orderDto);
 
         URI location = ServletUriComponentsBuilder.fromCurrentRequest()
             .path("/{id}")
@@ -51,13 +83,58 @@ public class OrderController {
         return ResponseEntity.created(location).body(createdOrderDto);
     }
 
+    @Operation(summary = "Queue new order, it is created asynchronously together with other queued orders")
+    @ApiResponse(responseCode = "202", description = "Order queued, its outcome can be looked up by the tracking id")
+    @ApiResponse(responseCode = "400", description = "Validation error")
+    @ApiResponse(responseCode = "429", description = "Queue full, retry later", content = @Content)
+    @PostMapping(params = "async=true")
+    public ResponseEntity<OrderIntakeStatusDto> submitOrder(@Valid @RequestBody NewOrderDto orderDto) {
+        OrderIntakeStatusDto status = orderIntakeService.submit(orderDto);
+
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+            .path("/api/v1/orders/intake/{trackingId}")
+            .buildAndExpand(status.trackingId())
+            .toUri();
+
+        return ResponseEntity.accepted().location(location).body(status);
+    }
+
+    @Operation(summary = "Get outcome of an asynchronously submitted order by its tracking id")
+    @ApiResponse(responseCode = "200", description = "Order queued, created or failed")
+    @ApiResponse(responseCode = "404", description = "Tracking id unknown or expired", content = @Content)
+    @GetMapping("/intake/{trackingId}")
+    public ResponseEntity<OrderIntakeStatusDto> getIntakeStatus(@PathVariable String trackingId) {
+        return orderIntakeService.getStatus(trackingId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Create many orders in a single transaction")
+    @ApiResponse(responseCode = "200", description = "Batch processed, result reported per order")
+    @ApiResponse(responseCode = "400", description = "Batch empty or too large")
+    @PostMapping("/batch")
+    public ResponseEntity<List<OrderBatchResultDto>> createOrders(@RequestBody List<NewOrderDto> orderDtos) {
+        return ResponseEntity.ok(orderService.createOrders(orderDtos));
+    }
+
     @Operation(summary = "Get order details by id")
     @ApiResponse(responseCode = "200", description = "Order found")
+    @ApiResponse(responseCode = "304", description = "Order not modified since the given ETag", content = @Content)
     @ApiResponse(responseCode = "404", description = "Order not found", content = @Content)
     @GetMapping("/{id}")
-    public ResponseEntity<OrderDetailsDto> getOrderById(@PathVariable Long id) {
+    public ResponseEntity<OrderDetailsDto> getOrderById(@PathVariable Long id, WebRequest request) {
+        // Read before the body, so the body can be newer than its tag but never older
+        Optional<Integer> version = orderService.getOrderVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String eTag = ETags.of(id, version.get());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         return orderService.getOrderDetailsById(id)
-            .map(ResponseEntity::ok)
+            .map(order -> ResponseEntity.ok().eTag(eTag).body(order))
             .orElse(ResponseEntity.notFound().build());
     }
 
@@ -72,11 +149,56 @@ public class OrderController {
         @ParameterObject OrderSearchParams searchParams) {
 
         Sort.Direction sortDirection = Sort.Direction.fromString(direction);
-        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortField));
+        Pageable pageable = PageRequest.of(page, size, toOrderSort(sortDirection, OrderSortField.fromProperty(sortField)));
         Page<OrderInfoDto> orderPage = orderService.getOrders(pageable, searchParams);
         return ResponseEntity.ok(orderPage);
     }
 
+    @Operation(summary = "Get slice of newest orders after the given cursor, without counting all orders.")
+    @ApiResponse(responseCode = "200", description = "Returned requested slice of orders")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or size", content = @Content)
+    @GetMapping("/cursor")
+    public ResponseEntity<OrderCursorPageDto> getOrdersAfter(
+        @RequestParam(required = false, name = "after") String after,
+        @RequestParam(required = false, name = "size", defaultValue = "20") int size,
+        @ParameterObject OrderSearchParams searchParams) {
+
+        OrderCursor cursor = after == null ? null : OrderCursor.decode(after);
+        Slice<OrderInfoDto> orderSlice = orderService.getOrdersAfter(cursor, size, searchParams);
+
+        List<OrderInfoDto> content = orderSlice.getContent();
+        String nextCursor = orderSlice.hasNext() ? OrderCursor.of(content.getLast()).encode() : null;
+        return ResponseEntity.ok(new OrderCursorPageDto(content, orderSlice.getSize(), orderSlice.hasNext(), nextCursor));
+    }
+
+    @Operation(summary = "Stream status changes of the customer's orders as server-sent events, once committed")
+    @ApiResponse(responseCode = "200", description = "Stream opened")
+    @ApiResponse(responseCode = "404", description = "Customer not found", content = @Content)
+    @ApiResponse(responseCode = "429", description = "Too many open streams for the customer", content = @Content)
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderStatusChanges(@RequestParam(name = "customerId") Long customerId) {
+        return orderStatusStreamService.subscribe(customerId);
+    }
+
+    @Operation(summary = "Export all orders matching the query parameters as NDJSON or CSV, oldest first.")
+    @ApiResponse(responseCode = "200", description = "Orders streamed in the requested format")
+    @ApiResponse(responseCode = "400", description = "Unsupported format", content = @Content)
+    @GetMapping("/export")
+    public void exportOrders(
+        @RequestParam(required = false, name = "format", defaultValue = "ndjson") String format,
+        @ParameterObject OrderExportParams exportParams,
+        HttpServletResponse response) throws IOException {
+
+        FileFormat fileFormat = FileFormat.fromValue(format);
+        response.setContentType(fileFormat.getMediaType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+            .filename("orders." + fileFormat.getValue())
+            .build()
+            .toString());
+        orderExportService.exportOrders(exportParams, fileFormat, response.getOutputStream());
+    }
+
     @Operation(summary = "Delete order by id")
     @ApiResponse(responseCode = "200", description = "Order deleted")
     @ApiResponse(responseCode = "404", description = "Order not found", content = @Content)
@@ -89,9 +211,12 @@ public class OrderController {
     @Operation(summary = "Update order by id")
     @ApiResponse(responseCode = "200", description = "Order updated")
     @ApiResponse(responseCode = "404", description = "Order not found", content = @Content)
+    @ApiResponse(responseCode = "412", description = "Order modified since the If-Match ETag", content = @Content)
     @PutMapping("/{id}")
-    public ResponseEntity<OrderDetailsDto> updateOrder(@PathVariable Long id, @Valid @RequestBody OrderDetailsDto updatedOrderDto) {
-        return orderService.updateOrder(id, updatedOrderDto)
+    public ResponseEntity<OrderDetailsDto> updateOrder(@PathVariable Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @Valid @RequestBody OrderDetailsDto updatedOrderDto) {
+        return orderService.updateOrder(id, updatedOrderDto, ETags.expectedVersion(ifMatch, id))
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
@@ -99,10 +224,21 @@ public class OrderController {
     @Operation(summary = "Partially update order by id")
     @ApiResponse(responseCode = "200", description = "Order updated")
     @ApiResponse(responseCode = "404", description = "Order not found", content = @Content)
+    @ApiResponse(responseCode = "412", description = "Order modified since the If-Match ETag", content = @Content)
     @PatchMapping("/{id}")
-    public ResponseEntity<OrderDetailsDto> updateOrderPartially(@PathVariable Long id, @RequestBody OrderDetailsDto patch) {
-        return orderService.updateOrderPartially(id, patch)
+    public ResponseEntity<OrderDetailsDto> updateOrderPartially(@PathVariable Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody OrderDetailsDto patch) {
+        return orderService.updateOrderPartially(id, patch, ETags.expectedVersion(ifMatch, id))
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
+
+    private static Sort toOrderSort(Sort.Direction direction, OrderSortField sortField) {
+        Sort sort = Sort.by(direction, sortField.getProperty());
+        if (sortField == OrderSortField.ID) {
+            return sort;
+        }
+        return sort.and(Sort.by(direction, OrderSortField.ID.getProperty()));
+    }
 }
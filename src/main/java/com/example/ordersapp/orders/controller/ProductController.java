@@ -2,18 +2,26 @@ package com.example.ordersapp.orders.controller;
 
 import com.example.ordersapp.orders.model.dto.ProductDto;
 import com.example.ordersapp.orders.model.dto.ProductSearchParams;
+import com.example.ordersapp.orders.model.enums.FileFormat;
+import com.example.ordersapp.orders.service.ProductImportService;
 import com.example.ordersapp.orders.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.net.URI;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,9 +30,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/v1/products")
@@ -32,6 +42,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
 
     @Operation(summary = "Crate new product")
     @ApiResponse(responseCode = "201", description = "Product created")
@@ -43,13 +54,36 @@ public class ProductController {
         return ResponseEntity.created(location).body(createdProductDto);
     }
 
+    @Operation(summary = "Upsert products by sku from an NDJSON or CSV file, streaming back a report of rejected rows.")
+    @ApiResponse(responseCode = "200", description = "File processed, one NDJSON entry per rejected row and a summary")
+    @ApiResponse(responseCode = "415", description = "Unsupported file format", content = @Content)
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"},
+        produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importProducts(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        FileFormat fileFormat = FileFormat.fromMediaType(MediaType.parseMediaType(request.getContentType()));
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        productImportService.importProducts(request.getInputStream(), fileFormat, response.getOutputStream());
+    }
+
     @Operation(summary = "Get product by id")
     @ApiResponse(responseCode = "200", description = "Product found")
+    @ApiResponse(responseCode = "304", description = "Product not modified since the given ETag", content = @Content)
     @ApiResponse(responseCode = "404", description = "Product not found", content = @Content)
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id, WebRequest request) {
+        // Read before the body, so the body can be newer than its tag but never older
+        Optional<Integer> version = productService.getProductVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String eTag = ETags.of(id, version.get());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         return productService.getProductById(id)
-            .map(ResponseEntity::ok)
+            .map(product -> ResponseEntity.ok().eTag(eTag).body(product))
             .orElse(ResponseEntity.notFound().build());
     }
 
@@ -80,9 +114,12 @@ public class ProductController {
     @Operation(summary = "Update product by id")
     @ApiResponse(responseCode = "200", description = "Product updated")
     @ApiResponse(responseCode = "404", description = "Product not found", content = @Content)
+    @ApiResponse(responseCode = "412", description = "Product modified since the If-Match ETag", content = @Content)
     @PutMapping("/{id}")
-    public ResponseEntity<ProductDto> updateProduct(@PathVariable Long id, @RequestBody ProductDto updatedProductDto) {
-        return productService.updateProduct(id, updatedProductDto)
+    public ResponseEntity<ProductDto> updateProduct(@PathVariable Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody ProductDto updatedProductDto) {
+        return productService.updateProduct(id, updatedProductDto, ETags.expectedVersion(ifMatch, id))
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
@@ -90,9 +127,24 @@ public class ProductController {
     @Operation(summary = "Partially update product by id")
     @ApiResponse(responseCode = "200", description = "Product updated")
     @ApiResponse(responseCode = "404", description = "Product not found", content = @Content)
+    @ApiResponse(responseCode = "412", description = "Product modified since the If-Match ETag", content = @Content)
     @PatchMapping("/{id}")
-    public ResponseEntity<ProductDto> updateProductPartially(@PathVariable Long id, @RequestBody ProductDto patch) {
-        return productService.updateProductPartially(id, patch)
+    public ResponseEntity<ProductDto> updateProductPartially(@PathVariable Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @RequestBody ProductDto patch) {
+        return productService.updateProductPartially(id, patch, ETags.expectedVersion(ifMatch, id))
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Split stock of a product into counter shards, for products hit by many concurrent orders. "
+        + "A single shard keeps the stock on the product row.")
+    @ApiResponse(responseCode = "200", description = "Stock redistributed")
+    @ApiResponse(responseCode = "400", description = "Validation error", content = @Content)
+    @ApiResponse(responseCode = "404", description = "Product not found", content = @Content)
+    @PutMapping("/{id}/stock-shards")
+    public ResponseEntity<ProductDto> updateStockShards(@PathVariable Long id, @RequestParam int shards) {
+        return productService.updateStockShards(id, shards)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
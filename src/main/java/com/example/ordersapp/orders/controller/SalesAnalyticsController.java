@@ -0,0 +1,70 @@
+package com.example.ordersapp.orders.controller;
+
+import com.example.ordersapp.orders.model.dto.DailySalesDto;
+import com.example.ordersapp.orders.model.dto.PaymentMethodSalesDto;
+import com.example.ordersapp.orders.model.dto.ProductSalesDto;
+import com.example.ordersapp.orders.service.SalesAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/analytics/sales")
+@RequiredArgsConstructor
+public class SalesAnalyticsController {
+
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    @Operation(summary = "Get booked and realized sales per day, days without orders are left out")
+    @ApiResponse(responseCode = "200", description = "Returned sales of the requested days")
+    @ApiResponse(responseCode = "400", description = "Invalid date range", content = @Content)
+    @GetMapping("/daily")
+    public ResponseEntity<List<DailySalesDto>> getDailySales(
+        @RequestParam(name = "from") @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+        @RequestParam(name = "to") @DateTimeFormat(iso = ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesAnalyticsService.getDailySales(from, to));
+    }
+
+    @Operation(summary = "Get products with the highest booked revenue in the requested days")
+    @ApiResponse(responseCode = "200", description = "Returned sales of the top products")
+    @ApiResponse(responseCode = "400", description = "Invalid date range or limit", content = @Content)
+    @GetMapping("/products")
+    public ResponseEntity<List<ProductSalesDto>> getTopProductSales(
+        @RequestParam(name = "from") @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+        @RequestParam(name = "to") @DateTimeFormat(iso = ISO.DATE) LocalDate to,
+        @RequestParam(required = false, name = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(salesAnalyticsService.getTopProductSales(from, to, limit));
+    }
+
+    @Operation(summary = "Get booked and realized sales per payment method in the requested days")
+    @ApiResponse(responseCode = "200", description = "Returned sales per payment method")
+    @ApiResponse(responseCode = "400", description = "Invalid date range", content = @Content)
+    @GetMapping("/payment-methods")
+    public ResponseEntity<List<PaymentMethodSalesDto>> getPaymentMethodSales(
+        @RequestParam(name = "from") @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+        @RequestParam(name = "to") @DateTimeFormat(iso = ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesAnalyticsService.getPaymentMethodSales(from, to));
+    }
+
+    @Operation(summary = "Recompute the sales rollups of the requested days from the orders")
+    @ApiResponse(responseCode = "204", description = "Rollups rebuilt")
+    @ApiResponse(responseCode = "400", description = "Invalid date range", content = @Content)
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuildRollups(
+        @RequestParam(name = "from") @DateTimeFormat(iso = ISO.DATE) LocalDate from,
+        @RequestParam(name = "to") @DateTimeFormat(iso = ISO.DATE) LocalDate to) {
+        salesAnalyticsService.rebuildRollups(from, to);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.ordersapp.orders.model;
 
+import static com.example.ordersapp.config.CacheConfig.CUSTOMERS_REGION;
+
 import com.example.ordersapp.shared.model.BaseEntity;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
@@ -8,6 +11,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Getter
@@ -15,6 +20,8 @@ import lombok.ToString;
 @ToString
 @NoArgsConstructor
 @Table(name = "customers")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CUSTOMERS_REGION)
 public class Customer extends BaseEntity {
 
     @NotNull
@@ -4,16 +4,17 @@ import com.example.ordersapp.orders.model.enums.OrderStatus;
 import com.example.ordersapp.orders.model.enums.PaymentMethod;
 import com.example.ordersapp.shared.model.BaseEntity;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import jakarta.persistence.Temporal;
 import jakarta.persistence.TemporalType;
-import jakarta.persistence.Transient;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -32,17 +33,21 @@ import lombok.ToString;
 public class Order extends BaseEntity {
 
     @NotNull
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id")
+    @ToString.Exclude
     private Customer customer;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
     @ToString.Exclude
     private List<OrderItem> orderItems;
 
-    @Transient
-    private BigDecimal totalPrice;
-    @Transient
+    /**
+     * Sum of line totals, kept in sync with {@link #orderItems} by {@link #recalculateTotals()}
+     */
+    @NotNull
+    @Column(precision = 12, scale = 2)
+    private BigDecimal totalPrice = BigDecimal.ZERO;
     private int totalItems;
 
     @NotNull
@@ -56,4 +61,21 @@ public class Order extends BaseEntity {
     @NotNull
     @Temporal(TemporalType.TIMESTAMP)
     private LocalDateTime orderDate;
+
+    /**
+     * Has to be called whenever items, their quantities or unit prices change. Totals are left as they are when items
+     * were not loaded.
+     */
+    public void recalculateTotals() {
+        if (orderItems == null) {
+            return;
+        }
+        totalItems = orderItems.stream()
+            .mapToInt(OrderItem::getQuantity)
+            .sum();
+        totalPrice = orderItems.stream()
+            .filter(orderItem -> orderItem.getUnitPrice() != null)
+            .map(orderItem -> orderItem.getUnitPrice().multiply(BigDecimal.valueOf(orderItem.getQuantity())))
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
 }
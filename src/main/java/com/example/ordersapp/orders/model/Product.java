@@ -1,15 +1,22 @@
 package com.example.ordersapp.orders.model;
 
+import static com.example.ordersapp.config.CacheConfig.PRODUCTS_REGION;
+
 import com.example.ordersapp.shared.model.BaseEntity;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Formula;
 
 @Entity
 @Getter
@@ -17,8 +24,15 @@ import lombok.ToString;
 @ToString
 @NoArgsConstructor
 @Table(name = "products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = PRODUCTS_REGION)
 public class Product extends BaseEntity {
 
+    /**
+     * Natural key used by catalog imports, {@code null} for products created without one
+     */
+    @Column(unique = true, length = 64)
+    private String sku;
     @NotNull
     private String name;
     @NotNull
@@ -30,7 +44,14 @@ public class Product extends BaseEntity {
     @NotNull
     private Integer stockQuantity;
 
-    public void subtractFromStock(int quantity) {
-        stockQuantity = stockQuantity - quantity;
+    /**
+     * Stock held in {@link ProductStockShard} rows, while sharded {@link #stockQuantity} is kept at zero
+     */
+    @Setter(AccessLevel.NONE)
+    @Formula("(SELECT COALESCE(SUM(s.quantity), 0) FROM product_stock_shards s WHERE s.product_id = id)")
+    private Integer shardedStockQuantity;
+
+    public int getTotalStockQuantity() {
+        return stockQuantity + (shardedStockQuantity == null ? 0 : shardedStockQuantity);
     }
 }
@@ -0,0 +1,31 @@
+package com.example.ordersapp.orders.model;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * One of the counter rows holding the stock of a product in sharded inventory mode. Deliberately has no version or
+ * timestamps, so decrementing a shard touches as little as possible.
+ */
+@Entity
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "product_stock_shards")
+public class ProductStockShard {
+
+    @EmbeddedId
+    private ProductStockShardId id;
+
+    @NotNull
+    private Integer quantity;
+}
@@ -0,0 +1,15 @@
+package com.example.ordersapp.orders.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.io.Serializable;
+
+@Embeddable
+public record ProductStockShardId(
+    @Column(name = "product_id", nullable = false)
+    Long productId,
+    @Column(name = "shard_no", nullable = false)
+    Integer shardNo
+) implements Serializable {
+
+}
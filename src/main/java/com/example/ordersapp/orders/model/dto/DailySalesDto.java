@@ -0,0 +1,14 @@
+package com.example.ordersapp.orders.model.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Sales of all orders placed on the given day
+ */
+public record DailySalesDto(
+    LocalDate salesDate,
+    SalesFigures sales)
+    implements Serializable {
+
+}
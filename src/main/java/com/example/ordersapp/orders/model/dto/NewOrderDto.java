@@ -3,6 +3,7 @@ package com.example.ordersapp.orders.model.dto;
 import com.example.ordersapp.orders.model.Order;
 import com.example.ordersapp.orders.model.enums.OrderStatus;
 import com.example.ordersapp.orders.model.enums.PaymentMethod;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import java.io.Serializable;
@@ -15,7 +16,7 @@ import java.util.List;
 public record NewOrderDto(
     Long id,
     @NotNull Long customerId,
-    @Size(min = 1) List<OrderItemDto> orderItems,
+    @Valid @Size(min = 1) List<OrderItemDto> orderItems,
     OrderStatus status,
     @NotNull PaymentMethod paymentMethod,
     LocalDateTime orderDate)
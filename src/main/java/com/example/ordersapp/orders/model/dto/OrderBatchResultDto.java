@@ -0,0 +1,23 @@
+package com.example.ordersapp.orders.model.dto;
+
+import com.example.ordersapp.orders.model.enums.BatchResultStatus;
+import java.io.Serializable;
+
+/**
+ * Outcome of a single order submitted through the batch endpoint, {@code index} points at its position in the request
+ */
+public record OrderBatchResultDto(
+    int index,
+    BatchResultStatus status,
+    Long orderId,
+    String error)
+    implements Serializable {
+
+    public static OrderBatchResultDto created(int index, Long orderId) {
+        return new OrderBatchResultDto(index, BatchResultStatus.CREATED, orderId, null);
+    }
+
+    public static OrderBatchResultDto failed(int index, String error) {
+        return new OrderBatchResultDto(index, BatchResultStatus.FAILED, null, error);
+    }
+}
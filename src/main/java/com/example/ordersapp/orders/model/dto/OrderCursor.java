@@ -0,0 +1,39 @@
+package com.example.ordersapp.orders.model.dto;
+
+import jakarta.validation.ValidationException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last order returned by keyset pagination, exposed to clients as an opaque token
+ */
+public record OrderCursor(
+    LocalDateTime orderDate,
+    Long id
+) {
+
+    private static final String SEPARATOR = "|";
+
+    public static OrderCursor of(OrderInfoDto order) {
+        return new OrderCursor(order.orderDate(), order.id());
+    }
+
+    public String encode() {
+        String value = orderDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = value.lastIndexOf(SEPARATOR);
+            return new OrderCursor(
+                LocalDateTime.parse(value.substring(0, separatorIndex)),
+                Long.valueOf(value.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new ValidationException("Invalid cursor: " + token);
+        }
+    }
+}
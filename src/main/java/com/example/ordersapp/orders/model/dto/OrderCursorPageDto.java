@@ -0,0 +1,16 @@
+package com.example.ordersapp.orders.model.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Slice of orders returned by keyset pagination, {@code nextCursor} is {@code null} on the last slice
+ */
+public record OrderCursorPageDto(
+    List<OrderInfoDto> content,
+    int size,
+    boolean hasNext,
+    String nextCursor)
+    implements Serializable {
+
+}
@@ -9,7 +9,7 @@ import java.util.List;
 import lombok.Value;
 
 /**
- * DTO for {@link Order}
+ * DTO for {@link Order}, totals are read from the order as persisted
  */
 @Value
 public class OrderDetailsDto {
@@ -22,30 +22,4 @@ public class OrderDetailsDto {
     OrderStatus status;
     PaymentMethod paymentMethod;
     LocalDateTime orderDate;
-
-    public OrderDetailsDto(Long id, CustomerDto customer, List<OrderItemDto> orderItems,
-        OrderStatus status, PaymentMethod paymentMethod, LocalDateTime orderDate) {
-        this.id = id;
-        this.customer = customer;
-        this.orderItems = orderItems;
-        this.status = status;
-        this.paymentMethod = paymentMethod;
-        this.orderDate = orderDate;
-
-        if (orderItems == null) {
-            this.totalItems = null;
-            this.totalPrice = null;
-        } else {
-            this.totalItems = orderItems.stream()
-                .mapToInt(OrderItemDto::quantity)
-                .sum();
-
-            this.totalPrice = orderItems.stream()
-                .map(orderItem -> {
-                    BigDecimal quantity = BigDecimal.valueOf(orderItem.quantity());
-                    return orderItem.unitPrice().multiply(quantity);
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        }
-    }
 }
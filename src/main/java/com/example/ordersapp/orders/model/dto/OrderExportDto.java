@@ -0,0 +1,25 @@
+package com.example.ordersapp.orders.model.dto;
+
+import com.example.ordersapp.orders.model.enums.OrderStatus;
+import com.example.ordersapp.orders.model.enums.PaymentMethod;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Exported order, the same fields as {@link OrderInfoDto} plus its lines when they were requested
+ */
+public record OrderExportDto(
+    Long id,
+    Long customerId,
+    OrderStatus status,
+    PaymentMethod paymentMethod,
+    LocalDateTime orderDate,
+    Integer totalItems,
+    BigDecimal totalPrice,
+    @JsonInclude(JsonInclude.Include.NON_NULL) List<OrderExportItemDto> orderItems)
+    implements Serializable {
+
+}
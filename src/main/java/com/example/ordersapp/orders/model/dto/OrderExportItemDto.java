@@ -0,0 +1,16 @@
+package com.example.ordersapp.orders.model.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Exported order line, the product is referenced by id only
+ */
+public record OrderExportItemDto(
+    Long id,
+    Long productId,
+    int quantity,
+    BigDecimal unitPrice)
+    implements Serializable {
+
+}
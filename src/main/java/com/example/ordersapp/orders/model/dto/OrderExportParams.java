@@ -0,0 +1,26 @@
+package com.example.ordersapp.orders.model.dto;
+
+import com.example.ordersapp.orders.model.enums.OrderStatus;
+import java.time.LocalDateTime;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+
+/**
+ * Orders placed in {@code [from, to)}, either bound may be omitted
+ */
+public record OrderExportParams(
+    @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+    @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to,
+    Long customerId,
+    OrderStatus status,
+    Boolean includeItems
+) {
+
+    public OrderExportParams {
+        includeItems = Boolean.TRUE.equals(includeItems);
+    }
+
+    public OrderSearchParams searchParams() {
+        return new OrderSearchParams(customerId, status, null, null, null, null);
+    }
+}
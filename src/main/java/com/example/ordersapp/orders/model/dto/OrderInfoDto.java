@@ -5,6 +5,7 @@ import com.example.ordersapp.orders.model.enums.OrderStatus;
 import com.example.ordersapp.orders.model.enums.PaymentMethod;
 import jakarta.validation.constraints.NotNull;
 import java.io.Serializable;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -15,7 +16,9 @@ public record OrderInfoDto(
     @NotNull Long customerId,
     @NotNull OrderStatus status,
     @NotNull PaymentMethod paymentMethod,
-    LocalDateTime orderDate)
+    LocalDateTime orderDate,
+    Integer totalItems,
+    BigDecimal totalPrice)
     implements Serializable {
 
 }
@@ -0,0 +1,28 @@
+package com.example.ordersapp.orders.model.dto;
+
+import com.example.ordersapp.orders.model.enums.OrderIntakeStatus;
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * State of an order submitted asynchronously, {@code orderId} is set once it is created and {@code error} if it failed
+ */
+public record OrderIntakeStatusDto(
+    UUID trackingId,
+    OrderIntakeStatus status,
+    Long orderId,
+    String error)
+    implements Serializable {
+
+    public static OrderIntakeStatusDto queued(UUID trackingId) {
+        return new OrderIntakeStatusDto(trackingId, OrderIntakeStatus.QUEUED, null, null);
+    }
+
+    public static OrderIntakeStatusDto created(UUID trackingId, Long orderId) {
+        return new OrderIntakeStatusDto(trackingId, OrderIntakeStatus.CREATED, orderId, null);
+    }
+
+    public static OrderIntakeStatusDto failed(UUID trackingId, String error) {
+        return new OrderIntakeStatusDto(trackingId, OrderIntakeStatus.FAILED, null, error);
+    }
+}
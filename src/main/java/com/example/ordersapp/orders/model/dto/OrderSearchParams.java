@@ -1,10 +1,15 @@
 package com.example.ordersapp.orders.model.dto;
 
 import com.example.ordersapp.orders.model.enums.OrderStatus;
+import java.math.BigDecimal;
 
 public record OrderSearchParams(
-    String customerId,
-    OrderStatus status
+    Long customerId,
+    OrderStatus status,
+    BigDecimal minTotalPrice,
+    BigDecimal maxTotalPrice,
+    Integer minTotalItems,
+    Integer maxTotalItems
 ) {
 
 }
@@ -0,0 +1,17 @@
+package com.example.ordersapp.orders.model.dto;
+
+import com.example.ordersapp.orders.model.enums.OrderStatus;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Status transition of an order, pushed to the order stream of its customer once committed
+ */
+public record OrderStatusChangeDto(
+    Long orderId,
+    OrderStatus previousStatus,
+    OrderStatus status,
+    LocalDateTime changedAt)
+    implements Serializable {
+
+}
@@ -0,0 +1,14 @@
+package com.example.ordersapp.orders.model.dto;
+
+import com.example.ordersapp.orders.model.enums.PaymentMethod;
+import java.io.Serializable;
+
+/**
+ * Sales of all orders paid with the given payment method
+ */
+public record PaymentMethodSalesDto(
+    PaymentMethod paymentMethod,
+    SalesFigures sales)
+    implements Serializable {
+
+}
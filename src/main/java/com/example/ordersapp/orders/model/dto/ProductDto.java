@@ -12,6 +12,7 @@ import org.hibernate.validator.constraints.Length;
  */
 public record ProductDto(
     Long id,
+    @Length(max = 64) String sku,
     @Length(min = 3, max = 50) String name,
     @Length(max = 255) String description,
     @Digits(integer = 10, fraction = 2) BigDecimal price,
@@ -0,0 +1,14 @@
+package com.example.ordersapp.orders.model.dto;
+
+import java.io.Serializable;
+
+/**
+ * Row of an import file that was not imported, {@code row} is 1-based and does not count the CSV header
+ */
+public record ProductImportErrorDto(
+    long row,
+    String sku,
+    String error)
+    implements Serializable {
+
+}
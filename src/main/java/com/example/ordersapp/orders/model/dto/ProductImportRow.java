@@ -0,0 +1,21 @@
+package com.example.ordersapp.orders.model.dto;
+
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.math.BigDecimal;
+import org.hibernate.validator.constraints.Length;
+
+/**
+ * Product read from an import file, matched with an existing product by {@code sku}
+ */
+public record ProductImportRow(
+    @NotBlank @Length(max = 64) String sku,
+    @NotNull @Length(min = 3, max = 50) String name,
+    @NotNull @Length(max = 255) String description,
+    @NotNull @PositiveOrZero @Digits(integer = 8, fraction = 2) BigDecimal price,
+    @NotNull @PositiveOrZero Integer stockQuantity
+) {
+
+}
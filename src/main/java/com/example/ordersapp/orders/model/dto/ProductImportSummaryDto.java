@@ -0,0 +1,14 @@
+package com.example.ordersapp.orders.model.dto;
+
+import java.io.Serializable;
+
+/**
+ * Last entry of an import report
+ */
+public record ProductImportSummaryDto(
+    long rows,
+    long imported,
+    long failed)
+    implements Serializable {
+
+}
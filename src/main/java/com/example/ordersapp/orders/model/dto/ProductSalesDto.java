@@ -0,0 +1,13 @@
+package com.example.ordersapp.orders.model.dto;
+
+import java.io.Serializable;
+
+/**
+ * Sales of a single product, orders count every order containing the product once
+ */
+public record ProductSalesDto(
+    Long productId,
+    SalesFigures sales)
+    implements Serializable {
+
+}
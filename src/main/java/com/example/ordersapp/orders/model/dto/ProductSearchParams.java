@@ -1,7 +1,20 @@
 package com.example.ordersapp.orders.model.dto;
 
+import com.example.ordersapp.orders.model.enums.ProductMatchMode;
+
+/**
+ * @param name  text to search for, products are not filtered without it
+ * @param match how the text has to match, {@link ProductMatchMode#EXACT} by default. Except for exact matches, products
+ *              are ordered by relevance instead of the requested sort.
+ */
 public record ProductSearchParams(
-    String name
+    String name,
+    ProductMatchMode match
 ) {
 
+    public ProductSearchParams {
+        if (match == null) {
+            match = ProductMatchMode.EXACT;
+        }
+    }
 }
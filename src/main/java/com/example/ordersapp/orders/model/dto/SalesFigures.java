@@ -0,0 +1,51 @@
+package com.example.ordersapp.orders.model.dto;
+
+import com.example.ordersapp.orders.model.enums.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Sales of one rollup bucket. Every order except cancelled ones is booked, delivered orders are realized as well.
+ */
+public record SalesFigures(
+    long orders,
+    long items,
+    BigDecimal revenue,
+    long realizedOrders,
+    long realizedItems,
+    BigDecimal realizedRevenue)
+    implements Serializable {
+
+    public static final SalesFigures ZERO = new SalesFigures(0, 0, BigDecimal.ZERO, 0, 0, BigDecimal.ZERO);
+
+    /**
+     * @return contribution of a single order, or of its lines of a single product, in the given status
+     */
+    public static SalesFigures of(OrderStatus status, long items, BigDecimal revenue) {
+        if (status == OrderStatus.CANCELLED) {
+            return ZERO;
+        }
+        if (status == OrderStatus.DELIVERED) {
+            return new SalesFigures(1, items, revenue, 1, items, revenue);
+        }
+        return new SalesFigures(1, items, revenue, 0, 0, BigDecimal.ZERO);
+    }
+
+    public SalesFigures add(SalesFigures other) {
+        return new SalesFigures(orders + other.orders, items + other.items, revenue.add(other.revenue),
+            realizedOrders + other.realizedOrders, realizedItems + other.realizedItems,
+            realizedRevenue.add(other.realizedRevenue));
+    }
+
+    public SalesFigures negate() {
+        return new SalesFigures(-orders, -items, revenue.negate(), -realizedOrders, -realizedItems,
+            realizedRevenue.negate());
+    }
+
+    @JsonIgnore
+    public boolean isZero() {
+        return orders == 0 && items == 0 && revenue.signum() == 0
+            && realizedOrders == 0 && realizedItems == 0 && realizedRevenue.signum() == 0;
+    }
+}
@@ -2,9 +2,16 @@ package com.example.ordersapp.orders.model.dto.mapper;
 
 import com.example.ordersapp.orders.model.Order;
 import com.example.ordersapp.orders.model.OrderItem;
+import com.example.ordersapp.orders.model.Product;
+import com.example.ordersapp.orders.model.dto.CustomerDto;
 import com.example.ordersapp.orders.model.dto.NewOrderDto;
 import com.example.ordersapp.orders.model.dto.OrderDetailsDto;
-import com.example.ordersapp.orders.model.dto.OrderSearchParams;
+import com.example.ordersapp.orders.model.dto.OrderItemDto;
+import com.example.ordersapp.orders.model.dto.ProductDto;
+import com.example.ordersapp.orders.model.dto.projection.OrderHeaderRow;
+import com.example.ordersapp.orders.model.dto.projection.OrderItemRow;
+import com.example.ordersapp.orders.model.event.OrderSnapshot;
+import com.example.ordersapp.orders.model.event.OrderSnapshot.OrderLine;
 import java.util.List;
 import org.mapstruct.AfterMapping;
 import org.mapstruct.BeanMapping;
@@ -41,12 +48,34 @@ public interface OrderMapper {
 
     OrderDetailsDto toOrderDetailsDto(Order order);
 
+    default OrderDetailsDto toOrderDetailsDto(OrderHeaderRow header, List<OrderItemRow> items) {
+        return new OrderDetailsDto(header.id(), toCustomerDto(header),
+            items.stream().map(this::toOrderItemDto).toList(), header.totalItems(), header.totalPrice(),
+            header.status(), header.paymentMethod(), header.orderDate());
+    }
+
+    @Mapping(target = "id", source = "customerId")
+    CustomerDto toCustomerDto(OrderHeaderRow header);
+
+    @Mapping(target = "stockQuantity", expression = "java(product.getTotalStockQuantity())")
+    ProductDto toProductDto(Product product);
+
+    default OrderItemDto toOrderItemDto(OrderItemRow item) {
+        ProductDto product = new ProductDto(item.productId(), item.productSku(), item.productName(),
+            item.productDescription(), item.productPrice(), item.productStockQuantity());
+        return new OrderItemDto(item.id(), product, item.quantity(), item.unitPrice());
+    }
+
+    @Mapping(target = "customerId", source = "customer.id")
+    @Mapping(target = "orderLines", source = "orderItems")
+    OrderSnapshot toSnapshot(Order order);
+
+    @Mapping(target = "productId", source = "product.id")
+    OrderLine toOrderLine(OrderItem orderItem);
+
     @Mapping(target = "totalItems", ignore = true)
     @Mapping(target = "totalPrice", ignore = true)
     @Mapping(target = "orderDate", ignore = true)
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     Order partialUpdate(OrderDetailsDto orderDto, @MappingTarget Order order);
-
-    @Mapping(target = "customer.id", source = "customerId")
-    Order searchParamsToEntity(OrderSearchParams searchParams);
 }
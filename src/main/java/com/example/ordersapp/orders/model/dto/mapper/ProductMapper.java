@@ -2,9 +2,10 @@ package com.example.ordersapp.orders.model.dto.mapper;
 
 import com.example.ordersapp.orders.model.Product;
 import com.example.ordersapp.orders.model.dto.ProductDto;
-import com.example.ordersapp.orders.model.dto.ProductSearchParams;
+import com.example.ordersapp.orders.model.dto.projection.ProductCatalogRow;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants.ComponentModel;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
@@ -15,10 +16,17 @@ public interface ProductMapper {
 
     Product toEntity(ProductDto productDto);
 
+    @Mapping(target = "stockQuantity", expression = "java(product.getTotalStockQuantity())")
     ProductDto toDto(Product product);
 
+    @Mapping(target = "stockQuantity", source = "stockQuantity")
+    ProductDto toDto(Product product, Integer stockQuantity);
+
+    default ProductDto toDto(ProductCatalogRow catalogRow, Integer stockQuantity) {
+        return new ProductDto(catalogRow.id(), catalogRow.sku(), catalogRow.name(), catalogRow.description(), catalogRow.price(),
+            stockQuantity);
+    }
+
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     Product partialUpdate(ProductDto productDto, @MappingTarget Product product);
-
-    Product searchParamsToEntity(ProductSearchParams searchParams);
 }
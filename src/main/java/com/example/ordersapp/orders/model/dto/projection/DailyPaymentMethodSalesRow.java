@@ -0,0 +1,16 @@
+package com.example.ordersapp.orders.model.dto.projection;
+
+import com.example.ordersapp.orders.model.dto.SalesFigures;
+import com.example.ordersapp.orders.model.enums.PaymentMethod;
+import java.time.LocalDate;
+
+/**
+ * Row of the per-payment-method sales rollup
+ */
+public record DailyPaymentMethodSalesRow(
+    LocalDate salesDate,
+    PaymentMethod paymentMethod,
+    SalesFigures sales
+) {
+
+}
@@ -0,0 +1,15 @@
+package com.example.ordersapp.orders.model.dto.projection;
+
+import com.example.ordersapp.orders.model.dto.SalesFigures;
+import java.time.LocalDate;
+
+/**
+ * Row of the per-product sales rollup
+ */
+public record DailyProductSalesRow(
+    LocalDate salesDate,
+    Long productId,
+    SalesFigures sales
+) {
+
+}
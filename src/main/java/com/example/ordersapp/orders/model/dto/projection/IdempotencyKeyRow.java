@@ -0,0 +1,14 @@
+package com.example.ordersapp.orders.model.dto.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of a stored idempotency key, the response is the serialized response body
+ */
+public record IdempotencyKeyRow(
+    String requestHash,
+    String response,
+    LocalDateTime createdAt
+) {
+
+}
@@ -0,0 +1,30 @@
+package com.example.ordersapp.orders.model.dto.projection;
+
+import com.example.ordersapp.orders.model.enums.OrderStatus;
+import com.example.ordersapp.orders.model.enums.PaymentMethod;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Order columns, optionally joined with one of its items. Item columns are {@code null} when items were not requested
+ * or the order has none.
+ */
+public record OrderExportRow(
+    Long id,
+    Long customerId,
+    OrderStatus status,
+    PaymentMethod paymentMethod,
+    LocalDateTime orderDate,
+    Integer totalItems,
+    BigDecimal totalPrice,
+    Long itemId,
+    Long productId,
+    Integer quantity,
+    BigDecimal unitPrice
+) {
+
+    public OrderExportRow(Long id, Long customerId, OrderStatus status, PaymentMethod paymentMethod,
+        LocalDateTime orderDate, Integer totalItems, BigDecimal totalPrice) {
+        this(id, customerId, status, paymentMethod, orderDate, totalItems, totalPrice, null, null, null, null);
+    }
+}
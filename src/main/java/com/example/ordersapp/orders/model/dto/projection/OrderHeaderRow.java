@@ -0,0 +1,29 @@
+package com.example.ordersapp.orders.model.dto.projection;
+
+import com.example.ordersapp.orders.model.enums.OrderStatus;
+import com.example.ordersapp.orders.model.enums.PaymentMethod;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Order columns joined with its customer, read without loading managed entities
+ */
+public record OrderHeaderRow(
+    Long id,
+    Long customerId,
+    String firstName,
+    String lastName,
+    String email,
+    String address,
+    String city,
+    String postalCode,
+    String country,
+    String phone,
+    OrderStatus status,
+    PaymentMethod paymentMethod,
+    LocalDateTime orderDate,
+    Integer totalItems,
+    BigDecimal totalPrice
+) {
+
+}
@@ -0,0 +1,20 @@
+package com.example.ordersapp.orders.model.dto.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Order item columns joined with its product, read without loading managed entities
+ */
+public record OrderItemRow(
+    Long id,
+    Long productId,
+    String productSku,
+    String productName,
+    String productDescription,
+    BigDecimal productPrice,
+    Integer productStockQuantity,
+    int quantity,
+    BigDecimal unitPrice
+) {
+
+}
@@ -0,0 +1,16 @@
+package com.example.ordersapp.orders.model.dto.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Rarely changing product columns, cached separately from the stock quantity
+ */
+public record ProductCatalogRow(
+    Long id,
+    String sku,
+    String name,
+    String description,
+    BigDecimal price
+) {
+
+}
@@ -0,0 +1,12 @@
+package com.example.ordersapp.orders.model.dto.projection;
+
+/**
+ * Stock quantity of a product, summed over its shards, with the product version it was read at. Every stock change
+ * on the product row bumps the version, changes of single shards do not.
+ */
+public record ProductStockRow(
+    Integer stockQuantity,
+    Integer version
+) {
+
+}
@@ -0,0 +1,11 @@
+package com.example.ordersapp.orders.model.dto.projection;
+
+/**
+ * Number of stock shards of a product, products without shards keep their stock in a single row
+ */
+public record StockShardCount(
+    Long productId,
+    long shards
+) {
+
+}
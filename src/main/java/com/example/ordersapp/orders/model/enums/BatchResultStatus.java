@@ -0,0 +1,5 @@
+package com.example.ordersapp.orders.model.enums;
+
+public enum BatchResultStatus {
+    CREATED, FAILED
+}
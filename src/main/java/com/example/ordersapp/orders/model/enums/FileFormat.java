@@ -0,0 +1,43 @@
+package com.example.ordersapp.orders.model.enums;
+
+import jakarta.validation.ValidationException;
+import java.util.Arrays;
+import org.springframework.http.MediaType;
+
+/**
+ * Formats of bulk exports and imports, one record per line
+ */
+public enum FileFormat {
+    NDJSON("ndjson", MediaType.APPLICATION_NDJSON),
+    CSV("csv", new MediaType("text", "csv"));
+
+    private final String value;
+    private final MediaType mediaType;
+
+    FileFormat(String value, MediaType mediaType) {
+        this.value = value;
+        this.mediaType = mediaType;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getMediaType() {
+        return mediaType.toString();
+    }
+
+    public static FileFormat fromValue(String value) {
+        return Arrays.stream(values())
+            .filter(format -> format.value.equalsIgnoreCase(value))
+            .findFirst()
+            .orElseThrow(() -> new ValidationException("Unsupported format: " + value));
+    }
+
+    public static FileFormat fromMediaType(MediaType mediaType) {
+        return Arrays.stream(values())
+            .filter(format -> format.mediaType.isCompatibleWith(mediaType))
+            .findFirst()
+            .orElseThrow(() -> new ValidationException("Unsupported content type: " + mediaType));
+    }
+}
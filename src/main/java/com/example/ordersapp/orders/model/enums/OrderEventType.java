@@ -0,0 +1,5 @@
+package com.example.ordersapp.orders.model.enums;
+
+public enum OrderEventType {
+    ORDER_CREATED, ORDER_STATUS_CHANGED
+}
@@ -0,0 +1,31 @@
+package com.example.ordersapp.orders.model.enums;
+
+import jakarta.validation.ValidationException;
+import java.util.Arrays;
+
+/**
+ * Fields the order list can be sorted by, each of them is backed by an index on {@code orders}
+ */
+public enum OrderSortField {
+    ORDER_DATE("orderDate"),
+    ID("id"),
+    TOTAL_PRICE("totalPrice"),
+    TOTAL_ITEMS("totalItems");
+
+    private final String property;
+
+    OrderSortField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public static OrderSortField fromProperty(String property) {
+        return Arrays.stream(values())
+            .filter(sortField -> sortField.property.equals(property))
+            .findFirst()
+            .orElseThrow(() -> new ValidationException("Orders cannot be sorted by: " + property));
+    }
+}
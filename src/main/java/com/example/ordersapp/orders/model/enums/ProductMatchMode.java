@@ -0,0 +1,23 @@
+package com.example.ordersapp.orders.model.enums;
+
+/**
+ * How a searched text has to match product names and descriptions. Case and accents are always ignored.
+ */
+public enum ProductMatchMode {
+    /**
+     * The whole name
+     */
+    EXACT,
+    /**
+     * The start of the name or of one of its words
+     */
+    PREFIX,
+    /**
+     * Any part of the name or description
+     */
+    SUBSTRING,
+    /**
+     * Every searched word resembles a word of the name or description, typos included
+     */
+    FUZZY
+}
@@ -0,0 +1,10 @@
+package com.example.ordersapp.orders.model.event;
+
+/**
+ * Published within the transaction creating the order
+ */
+public record OrderCreatedEvent(
+    OrderSnapshot order
+) {
+
+}
@@ -0,0 +1,10 @@
+package com.example.ordersapp.orders.model.event;
+
+/**
+ * Published within the transaction deleting the order, with the order as it was before the deletion
+ */
+public record OrderDeletedEvent(
+    OrderSnapshot order
+) {
+
+}
@@ -0,0 +1,39 @@
+package com.example.ordersapp.orders.model.event;
+
+import com.example.ordersapp.orders.model.enums.OrderEventType;
+import com.example.ordersapp.orders.model.enums.OrderStatus;
+import com.example.ordersapp.orders.model.enums.PaymentMethod;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Order event as handed to consumers outside the application. Delivery is at least once, consumers deduplicate by
+ * {@code eventId}.
+ */
+public record OrderLifecycleMessage(
+    UUID eventId,
+    OrderEventType type,
+    Long orderId,
+    Long customerId,
+    OrderStatus previousStatus,
+    OrderStatus status,
+    PaymentMethod paymentMethod,
+    int totalItems,
+    BigDecimal totalPrice,
+    LocalDateTime occurredAt
+) {
+
+    public static OrderLifecycleMessage created(OrderSnapshot order) {
+        return of(OrderEventType.ORDER_CREATED, null, order);
+    }
+
+    public static OrderLifecycleMessage statusChanged(OrderSnapshot previous, OrderSnapshot order) {
+        return of(OrderEventType.ORDER_STATUS_CHANGED, previous.status(), order);
+    }
+
+    private static OrderLifecycleMessage of(OrderEventType type, OrderStatus previousStatus, OrderSnapshot order) {
+        return new OrderLifecycleMessage(UUID.randomUUID(), type, order.id(), order.customerId(), previousStatus,
+            order.status(), order.paymentMethod(), order.totalItems(), order.totalPrice(), LocalDateTime.now());
+    }
+}
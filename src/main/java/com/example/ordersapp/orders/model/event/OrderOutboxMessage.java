@@ -0,0 +1,16 @@
+package com.example.ordersapp.orders.model.event;
+
+import com.example.ordersapp.orders.model.enums.OrderEventType;
+
+/**
+ * Row of the order outbox, {@code payload} is the serialized {@link OrderLifecycleMessage}. The id is assigned on
+ * insert and grows with every message.
+ */
+public record OrderOutboxMessage(
+    Long id,
+    Long orderId,
+    OrderEventType eventType,
+    String payload
+) {
+
+}
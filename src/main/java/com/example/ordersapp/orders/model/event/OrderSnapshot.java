@@ -0,0 +1,35 @@
+package com.example.ordersapp.orders.model.event;
+
+import com.example.ordersapp.orders.model.Order;
+import com.example.ordersapp.orders.model.enums.OrderStatus;
+import com.example.ordersapp.orders.model.enums.PaymentMethod;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable copy of an {@link Order} taken when it was written, safe to use after the persistence context is gone
+ */
+public record OrderSnapshot(
+    Long id,
+    Long customerId,
+    OrderStatus status,
+    PaymentMethod paymentMethod,
+    LocalDateTime orderDate,
+    int totalItems,
+    BigDecimal totalPrice,
+    List<OrderLine> orderLines
+) {
+
+    public OrderSnapshot {
+        orderLines = orderLines == null ? List.of() : List.copyOf(orderLines);
+    }
+
+    public record OrderLine(
+        Long productId,
+        int quantity,
+        BigDecimal unitPrice
+    ) {
+
+    }
+}
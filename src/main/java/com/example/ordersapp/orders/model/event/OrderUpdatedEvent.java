@@ -0,0 +1,14 @@
+package com.example.ordersapp.orders.model.event;
+
+/**
+ * Published within the transaction updating the order, with the order as it was before and after the update
+ */
+public record OrderUpdatedEvent(
+    OrderSnapshot previous,
+    OrderSnapshot order
+) {
+
+    public boolean isStatusChanged() {
+        return previous.status() != order.status();
+    }
+}
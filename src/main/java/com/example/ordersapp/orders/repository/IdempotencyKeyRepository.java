@@ -0,0 +1,30 @@
+package com.example.ordersapp.orders.repository;
+
+import com.example.ordersapp.orders.model.dto.projection.IdempotencyKeyRow;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository {
+
+    /**
+     * @return key created after the given time, with the response it was completed with
+     */
+    Optional<IdempotencyKeyRow> findCreatedAfter(String idempotencyKey, LocalDateTime createdAfter);
+
+    /**
+     * Inserts the key without a response. While the inserting transaction is open, inserts of the same key in other
+     * transactions wait for it to end.
+     *
+     * @return false if the key already exists
+     */
+    boolean add(String idempotencyKey, String requestHash, LocalDateTime createdAt);
+
+    void complete(String idempotencyKey, String response);
+
+    /**
+     * @return number of deleted keys, at most the limit
+     */
+    int deleteCreatedBefore(LocalDateTime createdBefore, int limit);
+
+    void deleteCreatedBefore(String idempotencyKey, LocalDateTime createdBefore);
+}
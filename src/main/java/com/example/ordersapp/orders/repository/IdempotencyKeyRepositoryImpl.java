@@ -0,0 +1,59 @@
+package com.example.ordersapp.orders.repository;
+
+import com.example.ordersapp.orders.model.dto.projection.IdempotencyKeyRow;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+class IdempotencyKeyRepositoryImpl implements IdempotencyKeyRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<IdempotencyKeyRow> findCreatedAfter(String idempotencyKey, LocalDateTime createdAfter) {
+        return jdbcTemplate.query("SELECT request_hash, response, created_at FROM order_idempotency_keys "
+                    + "WHERE idempotency_key = ? AND created_at > ?",
+                (resultSet, rowNum) -> new IdempotencyKeyRow(
+                    resultSet.getString("request_hash"),
+                    resultSet.getString("response"),
+                    resultSet.getTimestamp("created_at").toLocalDateTime()),
+                idempotencyKey, Timestamp.valueOf(createdAfter))
+            .stream()
+            .findFirst();
+    }
+
+    @Override
+    public boolean add(String idempotencyKey, String requestHash, LocalDateTime createdAt) {
+        try {
+            jdbcTemplate.update("INSERT INTO order_idempotency_keys (idempotency_key, request_hash, created_at) "
+                + "VALUES (?, ?, ?)", idempotencyKey, requestHash, Timestamp.valueOf(createdAt));
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public void complete(String idempotencyKey, String response) {
+        jdbcTemplate.update("UPDATE order_idempotency_keys SET response = ? WHERE idempotency_key = ?",
+            response, idempotencyKey);
+    }
+
+    @Override
+    public int deleteCreatedBefore(LocalDateTime createdBefore, int limit) {
+        return jdbcTemplate.update("DELETE FROM order_idempotency_keys WHERE created_at < ? LIMIT ?",
+            Timestamp.valueOf(createdBefore), limit);
+    }
+
+    @Override
+    public void deleteCreatedBefore(String idempotencyKey, LocalDateTime createdBefore) {
+        jdbcTemplate.update("DELETE FROM order_idempotency_keys WHERE idempotency_key = ? AND created_at < ?",
+            idempotencyKey, Timestamp.valueOf(createdBefore));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.ordersapp.orders.repository;
+
+import com.example.ordersapp.orders.model.event.OrderOutboxMessage;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderOutboxRepository {
+
+    /**
+     * Inserts the messages in list order, an empty list does not reach the database
+     */
+    void addAll(List<OrderOutboxMessage> messages);
+
+    /**
+     * @return oldest messages in id order, locked until the transaction ends, so concurrent relays wait for each other
+     * and never hand out the same message twice. Run it in READ COMMITTED, otherwise gap locks block inserts into the
+     * outbox as well.
+     */
+    List<OrderOutboxMessage> lockOldest(int limit);
+
+    void deleteAllById(Collection<Long> ids);
+}
@@ -0,0 +1,55 @@
+package com.example.ordersapp.orders.repository;
+
+import com.example.ordersapp.orders.model.enums.OrderEventType;
+import com.example.ordersapp.orders.model.event.OrderOutboxMessage;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+class OrderOutboxRepositoryImpl implements OrderOutboxRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addAll(List<OrderOutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate("INSERT INTO order_outbox (order_id, event_type, payload, created_at) "
+            + "VALUES (?, ?, ?, ?)", messages, messages.size(), (statement, message) -> {
+            statement.setLong(1, message.orderId());
+            statement.setString(2, message.eventType().name());
+            statement.setString(3, message.payload());
+            statement.setTimestamp(4, createdAt);
+        });
+    }
+
+    @Override
+    public List<OrderOutboxMessage> lockOldest(int limit) {
+        return jdbcTemplate.query("SELECT id, order_id, event_type, payload FROM order_outbox "
+                + "ORDER BY id LIMIT ? FOR UPDATE",
+            (resultSet, rowNum) -> new OrderOutboxMessage(
+                resultSet.getLong("id"),
+                resultSet.getLong("order_id"),
+                OrderEventType.valueOf(resultSet.getString("event_type")),
+                resultSet.getString("payload")),
+            limit);
+    }
+
+    @Override
+    public void deleteAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM order_outbox WHERE id IN (%s)"
+            .formatted(String.join(", ", Collections.nCopies(ids.size(), "?"))), ids.toArray());
+    }
+}
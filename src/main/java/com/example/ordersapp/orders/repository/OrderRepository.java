@@ -1,20 +1,34 @@
 package com.example.ordersapp.orders.repository;
 
 import com.example.ordersapp.orders.model.Order;
-import com.example.ordersapp.orders.model.dto.OrderInfoDto;
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.example.ordersapp.orders.model.dto.projection.OrderHeaderRow;
+import com.example.ordersapp.orders.model.dto.projection.OrderItemRow;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
 
     @Query("""
-        SELECT new com.example.ordersapp.orders.model.dto.OrderInfoDto
-        (o.id, c.id, o.status, o.paymentMethod, o.orderDate)
+        SELECT new com.example.ordersapp.orders.model.dto.projection.OrderHeaderRow
+        (o.id, c.id, c.firstName, c.lastName, c.email, c.address, c.city, c.postalCode, c.country, c.phone,
+        o.status, o.paymentMethod, o.orderDate, o.totalItems, o.totalPrice)
         FROM Order o JOIN o.customer c
+        WHERE o.id = :id
         """)
-    Page<OrderInfoDto> findAllWithCustomerId(Example<Order> orderExample, Pageable pageable);
+    Optional<OrderHeaderRow> findOrderHeaderById(Long id);
+
+    @Query("""
+        SELECT new com.example.ordersapp.orders.model.dto.projection.OrderItemRow
+        (i.id, p.id, p.sku, p.name, p.description, p.price, p.stockQuantity + p.shardedStockQuantity, i.quantity, i.unitPrice)
+        FROM OrderItem i JOIN i.product p
+        WHERE i.order.id = :orderId
+        ORDER BY i.id
+        """)
+    List<OrderItemRow> findOrderItemRowsByOrderId(Long orderId);
+
+    @Query("SELECT o.version FROM Order o WHERE o.id = :id")
+    Optional<Integer> findVersionById(Long id);
 
 }
@@ -0,0 +1,24 @@
+package com.example.ordersapp.orders.repository;
+
+import com.example.ordersapp.orders.model.dto.OrderCursor;
+import com.example.ordersapp.orders.model.dto.OrderExportParams;
+import com.example.ordersapp.orders.model.dto.OrderInfoDto;
+import com.example.ordersapp.orders.model.dto.OrderSearchParams;
+import com.example.ordersapp.orders.model.dto.projection.OrderExportRow;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public interface OrderRepositoryCustom {
+
+    Page<OrderInfoDto> findOrderInfos(OrderSearchParams searchParams, Pageable pageable);
+
+    Slice<OrderInfoDto> findOrderInfosAfter(OrderSearchParams searchParams, OrderCursor cursor, int size);
+
+    /**
+     * Streams matching orders oldest first, rows of the same order are adjacent and ordered by item id. The stream
+     * holds an open result set and must be closed.
+     */
+    Stream<OrderExportRow> streamOrderExportRows(OrderExportParams params);
+}
@@ -0,0 +1,189 @@
+package com.example.ordersapp.orders.repository;
+
+import com.example.ordersapp.orders.model.Order;
+import com.example.ordersapp.orders.model.OrderItem;
+import com.example.ordersapp.orders.model.dto.OrderCursor;
+import com.example.ordersapp.orders.model.dto.OrderExportParams;
+import com.example.ordersapp.orders.model.dto.OrderInfoDto;
+import com.example.ordersapp.orders.model.dto.OrderSearchParams;
+import com.example.ordersapp.orders.model.dto.projection.OrderExportRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+@RequiredArgsConstructor
+class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    /**
+     * Makes MySQL Connector/J stream the result set row by row instead of buffering it, so memory use of an export does
+     * not depend on its size. The connection cannot run other statements until the stream is closed.
+     */
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<OrderInfoDto> findOrderInfos(OrderSearchParams searchParams, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderInfoDto> query = cb.createQuery(OrderInfoDto.class);
+        Root<Order> order = query.from(Order.class);
+
+        query.select(toOrderInfoDto(cb, order))
+            .where(filter(cb, order, searchParams).toArray(Predicate[]::new))
+            .orderBy(QueryUtils.toOrders(pageable.getSort(), order, cb));
+
+        List<OrderInfoDto> content = entityManager.createQuery(query)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(searchParams));
+    }
+
+    @Override
+    public Slice<OrderInfoDto> findOrderInfosAfter(OrderSearchParams searchParams, OrderCursor cursor, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderInfoDto> query = cb.createQuery(OrderInfoDto.class);
+        Root<Order> order = query.from(Order.class);
+        Path<LocalDateTime> orderDate = order.get("orderDate");
+        Path<Long> id = order.get("id");
+
+        List<Predicate> predicates = filter(cb, order, searchParams);
+        if (cursor != null) {
+            predicates.add(cb.or(
+                cb.lessThan(orderDate, cursor.orderDate()),
+                cb.and(cb.equal(orderDate, cursor.orderDate()), cb.lessThan(id, cursor.id()))));
+        }
+
+        query.select(toOrderInfoDto(cb, order))
+            .where(predicates.toArray(Predicate[]::new))
+            .orderBy(cb.desc(orderDate), cb.desc(id));
+
+        List<OrderInfoDto> content = new ArrayList<>(entityManager.createQuery(query)
+            .setMaxResults(size + 1)
+            .getResultList());
+
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content.removeLast();
+        }
+        return new SliceImpl<>(content, Pageable.ofSize(size), hasNext);
+    }
+
+    @Override
+    public Stream<OrderExportRow> streamOrderExportRows(OrderExportParams params) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderExportRow> query = cb.createQuery(OrderExportRow.class);
+        Root<Order> order = query.from(Order.class);
+        Path<LocalDateTime> orderDate = order.get("orderDate");
+        Path<Long> id = order.get("id");
+
+        List<Predicate> predicates = filter(cb, order, params.searchParams());
+        if (params.from() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(orderDate, params.from()));
+        }
+        if (params.to() != null) {
+            predicates.add(cb.lessThan(orderDate, params.to()));
+        }
+
+        if (params.includeItems()) {
+            // Items are joined rather than queried per order, a streaming connection cannot run a second statement
+            Join<Order, OrderItem> item = order.join("orderItems", JoinType.LEFT);
+            query.select(cb.construct(OrderExportRow.class,
+                    id,
+                    order.get("customer").get("id"),
+                    order.get("status"),
+                    order.get("paymentMethod"),
+                    orderDate,
+                    order.get("totalItems"),
+                    order.get("totalPrice"),
+                    item.get("id"),
+                    item.get("product").get("id"),
+                    item.get("quantity"),
+                    item.get("unitPrice")))
+                .orderBy(cb.asc(orderDate), cb.asc(id), cb.asc(item.get("id")));
+        } else {
+            query.select(cb.construct(OrderExportRow.class,
+                    id,
+                    order.get("customer").get("id"),
+                    order.get("status"),
+                    order.get("paymentMethod"),
+                    orderDate,
+                    order.get("totalItems"),
+                    order.get("totalPrice")))
+                .orderBy(cb.asc(orderDate), cb.asc(id));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+
+        return entityManager.createQuery(query)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, STREAMING_FETCH_SIZE)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    }
+
+    private long count(OrderSearchParams searchParams) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Order> order = query.from(Order.class);
+
+        query.select(cb.count(order))
+            .where(filter(cb, order, searchParams).toArray(Predicate[]::new));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static List<Predicate> filter(CriteriaBuilder cb, Root<Order> order, OrderSearchParams searchParams) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (searchParams == null) {
+            return predicates;
+        }
+        if (searchParams.customerId() != null) {
+            predicates.add(cb.equal(order.get("customer").get("id"), searchParams.customerId()));
+        }
+        if (searchParams.status() != null) {
+            predicates.add(cb.equal(order.get("status"), searchParams.status()));
+        }
+        if (searchParams.minTotalPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(order.get("totalPrice"), searchParams.minTotalPrice()));
+        }
+        if (searchParams.maxTotalPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(order.get("totalPrice"), searchParams.maxTotalPrice()));
+        }
+        if (searchParams.minTotalItems() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(order.get("totalItems"), searchParams.minTotalItems()));
+        }
+        if (searchParams.maxTotalItems() != null) {
+            predicates.add(cb.lessThanOrEqualTo(order.get("totalItems"), searchParams.maxTotalItems()));
+        }
+        return predicates;
+    }
+
+    private static CompoundSelection<OrderInfoDto> toOrderInfoDto(CriteriaBuilder cb, Root<Order> order) {
+        return cb.construct(OrderInfoDto.class,
+            order.get("id"),
+            order.get("customer").get("id"),
+            order.get("status"),
+            order.get("paymentMethod"),
+            order.get("orderDate"),
+            order.get("totalItems"),
+            order.get("totalPrice"));
+    }
+}
@@ -1,8 +1,66 @@
 package com.example.ordersapp.orders.repository;
 
+import static com.example.ordersapp.config.CacheConfig.PRODUCT_LIST_REGION;
+
 import com.example.ordersapp.orders.model.Product;
+import com.example.ordersapp.orders.model.dto.projection.ProductCatalogRow;
+import com.example.ordersapp.orders.model.dto.projection.ProductStockRow;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    @Query("""
+        SELECT new com.example.ordersapp.orders.model.dto.projection.ProductCatalogRow
+        (p.id, p.sku, p.name, p.description, p.price)
+        FROM Product p
+        WHERE p.id = :id
+        """)
+    Optional<ProductCatalogRow> findCatalogRowById(Long id);
+
+    @Query("""
+        SELECT new com.example.ordersapp.orders.model.dto.projection.ProductCatalogRow
+        (p.id, p.sku, p.name, p.description, p.price)
+        FROM Product p
+        """)
+    List<ProductCatalogRow> findAllCatalogRows();
+
+    /**
+     * Product list pages and their counts are kept in the query cache when the second-level cache is enabled
+     */
+    @Override
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = PRODUCT_LIST_REGION)
+    })
+    Page<Product> findAll(Pageable pageable);
+
+    Page<Product> findAllByIdIn(Collection<Long> ids, Pageable pageable);
+
+    @Query("""
+        SELECT new com.example.ordersapp.orders.model.dto.projection.ProductStockRow
+        (p.stockQuantity + p.shardedStockQuantity, p.version)
+        FROM Product p WHERE p.id = :id
+        """)
+    Optional<ProductStockRow> findStockById(Long id);
+
+    @Query("SELECT p.version FROM Product p WHERE p.id = :id")
+    Optional<Integer> findVersionById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Product> findLockedById(Long id);
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Product> findAllByIdInOrderById(Collection<Long> ids);
 
 }
@@ -0,0 +1,31 @@
+package com.example.ordersapp.orders.repository;
+
+import com.example.ordersapp.orders.model.dto.ProductImportRow;
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Inserts new products and updates the ones whose sku already exists, in a single JDBC batch. Only new products
+     * draw an id from the generator. Stock of sharded products is left to their shards.
+     */
+    void upsertAllBySku(List<ProductImportRow> rows);
+
+    /**
+     * Takes the quantity from the stock kept on the product row, bumping its version
+     *
+     * @return {@code 0} if the product does not exist or holds less than the quantity
+     */
+    int subtractFromStock(Long id, int quantity);
+
+    /**
+     * Adds the quantity to the stock kept on the product row, bumping its version
+     */
+    int addToStock(Long id, int quantity);
+
+    /**
+     * Keeps the product out of the second-level cache until the current transaction completes, for stock changed in
+     * its shards without the product itself being updated
+     */
+    void invalidateCachedProduct(Long id);
+}
@@ -0,0 +1,116 @@
+package com.example.ordersapp.orders.repository;
+
+import com.example.ordersapp.orders.model.Product;
+import com.example.ordersapp.orders.model.dto.ProductImportRow;
+import jakarta.persistence.EntityManager;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Stock is updated in plain SQL rather than JPQL bulk updates, which would make Hibernate empty the whole product
+ * region of the second-level cache on every order. Only the updated product is invalidated instead, the way Hibernate
+ * invalidates an entity it updates itself: its cache entry stays locked until the transaction completes, so readers
+ * that loaded the old stock meanwhile cannot put it back.
+ */
+@RequiredArgsConstructor
+class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    // Rewritten by Connector/J into one multi-row INSERT per batch, so the UPDATE part must not contain placeholders.
+    // Inserted values are read through the row alias, VALUES() is deprecated since MySQL 8.0.20.
+    private static final String UPSERT_BY_SKU_SQL = """
+        INSERT INTO products (id, sku, name, description, price, stock_quantity, version, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, 0, NOW()) AS new
+        ON DUPLICATE KEY UPDATE
+            name = new.name,
+            description = new.description,
+            price = new.price,
+            stock_quantity = IF(EXISTS(SELECT 1 FROM product_stock_shards s WHERE s.product_id = products.id),
+                products.stock_quantity, new.stock_quantity),
+            version = products.version + 1,
+            modified_at = NOW()
+        """;
+    private static final String LOCK_IDS_BY_SKU_SQL = "SELECT id, sku FROM products WHERE sku IN (%s) FOR UPDATE";
+
+    private static final String SUBTRACT_FROM_STOCK_SQL = """
+        UPDATE products SET stock_quantity = stock_quantity - ?, version = version + 1
+        WHERE id = ? AND stock_quantity >= ?
+        """;
+    private static final String ADD_TO_STOCK_SQL = """
+        UPDATE products SET stock_quantity = stock_quantity + ?, version = version + 1
+        WHERE id = ?
+        """;
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsertAllBySku(List<ProductImportRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        // Existing products keep their id, new ones get theirs from the same pooled generator as products saved
+        // through JPA. The locks keep the skus from being changed or inserted concurrently until the upsert commits.
+        Map<String, Long> ids = lockIdsBySku(rows);
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator idGenerator = (IdentifierGenerator) session.getFactory().getMappingMetamodel()
+            .getEntityDescriptor(Product.class)
+            .getGenerator();
+        rows.forEach(row -> ids.computeIfAbsent(row.sku(), sku -> (Long) idGenerator.generate(session, null)));
+
+        jdbcTemplate.batchUpdate(UPSERT_BY_SKU_SQL, rows, rows.size(), (statement, row) -> {
+            statement.setLong(1, ids.get(row.sku()));
+            statement.setString(2, row.sku());
+            statement.setString(3, row.name());
+            statement.setString(4, row.description());
+            statement.setBigDecimal(5, row.price());
+            statement.setInt(6, row.stockQuantity());
+        });
+    }
+
+    private Map<String, Long> lockIdsBySku(List<ProductImportRow> rows) {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query(LOCK_IDS_BY_SKU_SQL.formatted(String.join(", ", Collections.nCopies(rows.size(), "?"))),
+            resultSet -> {
+                ids.put(resultSet.getString("sku"), resultSet.getLong("id"));
+            },
+            rows.stream().map(ProductImportRow::sku).toArray());
+        return ids;
+    }
+
+    @Override
+    public int subtractFromStock(Long id, int quantity) {
+        invalidateCachedProduct(id);
+        return jdbcTemplate.update(SUBTRACT_FROM_STOCK_SQL, quantity, id, quantity);
+    }
+
+    @Override
+    public int addToStock(Long id, int quantity) {
+        invalidateCachedProduct(id);
+        return jdbcTemplate.update(ADD_TO_STOCK_SQL, quantity, id);
+    }
+
+    @Override
+    public void invalidateCachedProduct(Long id) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Product.class);
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+        Object cacheKey = cacheAccess.generateCacheKey(id, persister, session.getFactory(),
+            session.getTenantIdentifier());
+        SoftLock lock = cacheAccess.lockItem(session, cacheKey, null);
+        session.getActionQueue().registerProcess((success, completedSession) ->
+            cacheAccess.unlockItem(completedSession, cacheKey, lock));
+    }
+}
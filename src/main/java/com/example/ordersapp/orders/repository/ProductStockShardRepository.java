@@ -0,0 +1,45 @@
+package com.example.ordersapp.orders.repository;
+
+import com.example.ordersapp.orders.model.ProductStockShard;
+import com.example.ordersapp.orders.model.ProductStockShardId;
+import com.example.ordersapp.orders.model.dto.projection.StockShardCount;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, ProductStockShardId> {
+
+    @Query("""
+        SELECT new com.example.ordersapp.orders.model.dto.projection.StockShardCount(s.id.productId, COUNT(s))
+        FROM ProductStockShard s
+        WHERE s.id.productId IN :productIds
+        GROUP BY s.id.productId
+        """)
+    List<StockShardCount> countShardsByProductIds(Collection<Long> productIds);
+
+    /**
+     * Locks the first shard from {@code fromShardNo} onwards able to cover the quantity, skipping shards locked by
+     * other transactions instead of waiting for them (lock timeout -2 is rendered as SKIP LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT s FROM ProductStockShard s
+        WHERE s.id.productId = :productId AND s.id.shardNo >= :fromShardNo AND s.quantity >= :quantity
+        ORDER BY s.id.shardNo
+        LIMIT 1
+        """)
+    Optional<ProductStockShard> findFirstUnlockedShard(Long productId, int fromShardNo, int quantity);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ProductStockShard> findAllByIdProductIdOrderByIdShardNo(Long productId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ProductStockShard> findLockedById(ProductStockShardId id);
+}
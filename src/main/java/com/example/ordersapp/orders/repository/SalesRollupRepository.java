@@ -0,0 +1,46 @@
+package com.example.ordersapp.orders.repository;
+
+import com.example.ordersapp.orders.model.dto.DailySalesDto;
+import com.example.ordersapp.orders.model.dto.PaymentMethodSalesDto;
+import com.example.ordersapp.orders.model.dto.ProductSalesDto;
+import com.example.ordersapp.orders.model.dto.projection.DailyPaymentMethodSalesRow;
+import com.example.ordersapp.orders.model.dto.projection.DailyProductSalesRow;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Daily sales rollups. They are plain counter tables without entities, rows are only ever added to or replaced as a
+ * whole day.
+ */
+public interface SalesRollupRepository {
+
+    /**
+     * Adds the figures to the existing rows, creating missing ones. Rows are locked in list order, an empty list
+     * does not reach the database.
+     */
+    void addDailySales(List<DailySalesDto> rows);
+
+    void addDailyProductSales(List<DailyProductSalesRow> rows);
+
+    void addDailyPaymentMethodSales(List<DailyPaymentMethodSalesRow> rows);
+
+    void deleteAllBySalesDate(LocalDate salesDate);
+
+    /**
+     * Aggregates the figures of a single day from the orders themselves
+     */
+    List<DailySalesDto> aggregateDailySales(LocalDate salesDate);
+
+    List<DailyProductSalesRow> aggregateDailyProductSales(LocalDate salesDate);
+
+    List<DailyPaymentMethodSalesRow> aggregateDailyPaymentMethodSales(LocalDate salesDate);
+
+    List<DailySalesDto> findDailySales(LocalDate from, LocalDate to);
+
+    /**
+     * @return products with the highest booked revenue in the given days
+     */
+    List<ProductSalesDto> findTopProductSales(LocalDate from, LocalDate to, int limit);
+
+    List<PaymentMethodSalesDto> findPaymentMethodSales(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,197 @@
+package com.example.ordersapp.orders.repository;
+
+import com.example.ordersapp.orders.model.dto.DailySalesDto;
+import com.example.ordersapp.orders.model.dto.PaymentMethodSalesDto;
+import com.example.ordersapp.orders.model.dto.ProductSalesDto;
+import com.example.ordersapp.orders.model.dto.SalesFigures;
+import com.example.ordersapp.orders.model.dto.projection.DailyPaymentMethodSalesRow;
+import com.example.ordersapp.orders.model.dto.projection.DailyProductSalesRow;
+import com.example.ordersapp.orders.model.enums.PaymentMethod;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+class SalesRollupRepositoryImpl implements SalesRollupRepository {
+
+    private static final String FIGURES_COLUMNS = """
+        orders_count, items_count, revenue, realized_orders_count, realized_items_count, realized_revenue""";
+
+    // Rewritten by Connector/J into one multi-row INSERT per batch, so the UPDATE part must not contain placeholders
+    private static final String ADD_FIGURES = """
+        ON DUPLICATE KEY UPDATE
+            orders_count = orders_count + VALUES(orders_count),
+            items_count = items_count + VALUES(items_count),
+            revenue = revenue + VALUES(revenue),
+            realized_orders_count = realized_orders_count + VALUES(realized_orders_count),
+            realized_items_count = realized_items_count + VALUES(realized_items_count),
+            realized_revenue = realized_revenue + VALUES(realized_revenue)
+        """;
+
+    private static final String SUM_FIGURES = """
+        SUM(orders_count) AS orders_count,
+        SUM(items_count) AS items_count,
+        SUM(revenue) AS revenue,
+        SUM(realized_orders_count) AS realized_orders_count,
+        SUM(realized_items_count) AS realized_items_count,
+        SUM(realized_revenue) AS realized_revenue
+        """;
+
+    // Same rules as SalesFigures.of, applied to whole orders and to order lines
+    private static final String AGGREGATE_ORDER_FIGURES = """
+        SUM(o.status <> 'CANCELLED') AS orders_count,
+        SUM(IF(o.status <> 'CANCELLED', o.total_items, 0)) AS items_count,
+        SUM(IF(o.status <> 'CANCELLED', o.total_price, 0)) AS revenue,
+        SUM(o.status = 'DELIVERED') AS realized_orders_count,
+        SUM(IF(o.status = 'DELIVERED', o.total_items, 0)) AS realized_items_count,
+        SUM(IF(o.status = 'DELIVERED', o.total_price, 0)) AS realized_revenue
+        """;
+
+    private static final String AGGREGATE_LINE_FIGURES = """
+        COUNT(DISTINCT IF(o.status <> 'CANCELLED', o.id, NULL)) AS orders_count,
+        SUM(IF(o.status <> 'CANCELLED', i.quantity, 0)) AS items_count,
+        SUM(IF(o.status <> 'CANCELLED', i.quantity * i.unit_price, 0)) AS revenue,
+        COUNT(DISTINCT IF(o.status = 'DELIVERED', o.id, NULL)) AS realized_orders_count,
+        SUM(IF(o.status = 'DELIVERED', i.quantity, 0)) AS realized_items_count,
+        SUM(IF(o.status = 'DELIVERED', i.quantity * i.unit_price, 0)) AS realized_revenue
+        """;
+
+    private static final String ORDERS_OF_DAY = "FROM orders o WHERE o.order_date >= ? AND o.order_date < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addDailySales(List<DailySalesDto> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO daily_sales (sales_date, " + FIGURES_COLUMNS + ") "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?) " + ADD_FIGURES, rows, rows.size(), (statement, row) -> {
+            statement.setDate(1, Date.valueOf(row.salesDate()));
+            setFigures(statement, 2, row.sales());
+        });
+    }
+
+    @Override
+    public void addDailyProductSales(List<DailyProductSalesRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO daily_product_sales (sales_date, product_id, " + FIGURES_COLUMNS + ") "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " + ADD_FIGURES, rows, rows.size(), (statement, row) -> {
+            statement.setDate(1, Date.valueOf(row.salesDate()));
+            statement.setLong(2, row.productId());
+            setFigures(statement, 3, row.sales());
+        });
+    }
+
+    @Override
+    public void addDailyPaymentMethodSales(List<DailyPaymentMethodSalesRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO daily_payment_method_sales (sales_date, payment_method, "
+            + FIGURES_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?) " + ADD_FIGURES, rows, rows.size(),
+            (statement, row) -> {
+                statement.setDate(1, Date.valueOf(row.salesDate()));
+                statement.setString(2, row.paymentMethod().name());
+                setFigures(statement, 3, row.sales());
+            });
+    }
+
+    @Override
+    public void deleteAllBySalesDate(LocalDate salesDate) {
+        Date date = Date.valueOf(salesDate);
+        jdbcTemplate.update("DELETE FROM daily_sales WHERE sales_date = ?", date);
+        jdbcTemplate.update("DELETE FROM daily_payment_method_sales WHERE sales_date = ?", date);
+        jdbcTemplate.update("DELETE FROM daily_product_sales WHERE sales_date = ?", date);
+    }
+
+    @Override
+    public List<DailySalesDto> aggregateDailySales(LocalDate salesDate) {
+        return jdbcTemplate.query("SELECT " + AGGREGATE_ORDER_FIGURES + ORDERS_OF_DAY + " HAVING COUNT(*) > 0",
+            (rs, rowNum) -> new DailySalesDto(salesDate, toFigures(rs)),
+            salesDate.atStartOfDay(), salesDate.plusDays(1).atStartOfDay());
+    }
+
+    @Override
+    public List<DailyProductSalesRow> aggregateDailyProductSales(LocalDate salesDate) {
+        return jdbcTemplate.query("""
+                SELECT i.product_id, %s
+                FROM orders o
+                    JOIN order_items i ON i.order_id = o.id
+                WHERE o.order_date >= ? AND o.order_date < ?
+                GROUP BY i.product_id
+                ORDER BY i.product_id
+                """.formatted(AGGREGATE_LINE_FIGURES),
+            (rs, rowNum) -> new DailyProductSalesRow(salesDate, rs.getLong("product_id"), toFigures(rs)),
+            salesDate.atStartOfDay(), salesDate.plusDays(1).atStartOfDay());
+    }
+
+    @Override
+    public List<DailyPaymentMethodSalesRow> aggregateDailyPaymentMethodSales(LocalDate salesDate) {
+        return jdbcTemplate.query("SELECT o.payment_method, " + AGGREGATE_ORDER_FIGURES + ORDERS_OF_DAY
+                + " GROUP BY o.payment_method ORDER BY o.payment_method",
+            (rs, rowNum) -> new DailyPaymentMethodSalesRow(salesDate,
+                PaymentMethod.valueOf(rs.getString("payment_method")), toFigures(rs)),
+            salesDate.atStartOfDay(), salesDate.plusDays(1).atStartOfDay());
+    }
+
+    @Override
+    public List<DailySalesDto> findDailySales(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("SELECT sales_date, " + FIGURES_COLUMNS
+                + " FROM daily_sales WHERE sales_date BETWEEN ? AND ? ORDER BY sales_date",
+            (rs, rowNum) -> new DailySalesDto(rs.getDate("sales_date").toLocalDate(), toFigures(rs)),
+            Date.valueOf(from), Date.valueOf(to));
+    }
+
+    @Override
+    public List<ProductSalesDto> findTopProductSales(LocalDate from, LocalDate to, int limit) {
+        return jdbcTemplate.query("""
+                SELECT product_id, %s
+                FROM daily_product_sales
+                WHERE sales_date BETWEEN ? AND ?
+                GROUP BY product_id
+                ORDER BY revenue DESC, product_id
+                LIMIT ?
+                """.formatted(SUM_FIGURES),
+            (rs, rowNum) -> new ProductSalesDto(rs.getLong("product_id"), toFigures(rs)),
+            Date.valueOf(from), Date.valueOf(to), limit);
+    }
+
+    @Override
+    public List<PaymentMethodSalesDto> findPaymentMethodSales(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT payment_method, %s
+                FROM daily_payment_method_sales
+                WHERE sales_date BETWEEN ? AND ?
+                GROUP BY payment_method
+                ORDER BY payment_method
+                """.formatted(SUM_FIGURES),
+            (rs, rowNum) -> new PaymentMethodSalesDto(PaymentMethod.valueOf(rs.getString("payment_method")),
+                toFigures(rs)),
+            Date.valueOf(from), Date.valueOf(to));
+    }
+
+    private static void setFigures(PreparedStatement statement, int index, SalesFigures figures) throws SQLException {
+        statement.setLong(index, figures.orders());
+        statement.setLong(index + 1, figures.items());
+        statement.setBigDecimal(index + 2, figures.revenue());
+        statement.setLong(index + 3, figures.realizedOrders());
+        statement.setLong(index + 4, figures.realizedItems());
+        statement.setBigDecimal(index + 5, figures.realizedRevenue());
+    }
+
+    private static SalesFigures toFigures(ResultSet rs) throws SQLException {
+        return new SalesFigures(rs.getLong("orders_count"), rs.getLong("items_count"), rs.getBigDecimal("revenue"),
+            rs.getLong("realized_orders_count"), rs.getLong("realized_items_count"),
+            rs.getBigDecimal("realized_revenue"));
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.ordersapp.orders.service;
+
+import com.example.ordersapp.orders.model.dto.NewOrderDto;
+
+public interface IdempotentOrderService {
+
+    /**
+     * Creates the order on the first request with the key and replays the stored response to every later one
+     *
+     * @throws org.springframework.web.server.ResponseStatusException 422 if the key was used for a different order
+     */
+    NewOrderDto createOrder(String idempotencyKey, NewOrderDto order);
+}
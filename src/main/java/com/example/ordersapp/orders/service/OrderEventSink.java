@@ -0,0 +1,13 @@
+package com.example.ordersapp.orders.service;
+
+import com.example.ordersapp.orders.model.event.OrderOutboxMessage;
+import java.util.List;
+
+/**
+ * Destination of the order events relayed from the outbox, e.g. a message broker. Messages come in outbox order and
+ * are deleted only after this method returned, a failing sink gets the same messages again on the next attempt.
+ */
+public interface OrderEventSink {
+
+    void publish(List<OrderOutboxMessage> messages);
+}
@@ -0,0 +1,14 @@
+package com.example.ordersapp.orders.service;
+
+import com.example.ordersapp.orders.model.dto.OrderExportParams;
+import com.example.ordersapp.orders.model.enums.FileFormat;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface OrderExportService {
+
+    /**
+     * Writes all matching orders to the stream, which is flushed but left open
+     */
+    void exportOrders(OrderExportParams params, FileFormat format, OutputStream out) throws IOException;
+}
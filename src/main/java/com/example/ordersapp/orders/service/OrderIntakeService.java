@@ -0,0 +1,12 @@
+package com.example.ordersapp.orders.service;
+
+import com.example.ordersapp.orders.model.dto.NewOrderDto;
+import com.example.ordersapp.orders.model.dto.OrderIntakeStatusDto;
+import java.util.Optional;
+
+public interface OrderIntakeService {
+
+    OrderIntakeStatusDto submit(NewOrderDto order);
+
+    Optional<OrderIntakeStatusDto> getStatus(String trackingId);
+}
@@ -1,24 +1,37 @@
 package com.example.ordersapp.orders.service;
 
 import com.example.ordersapp.orders.model.dto.NewOrderDto;
+import com.example.ordersapp.orders.model.dto.OrderBatchResultDto;
+import com.example.ordersapp.orders.model.dto.OrderCursor;
 import com.example.ordersapp.orders.model.dto.OrderDetailsDto;
 import com.example.ordersapp.orders.model.dto.OrderInfoDto;
 import com.example.ordersapp.orders.model.dto.OrderSearchParams;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface OrderService {
 
     NewOrderDto createOrder(NewOrderDto order);
 
+    List<OrderBatchResultDto> createOrders(List<NewOrderDto> orders);
+
     Optional<OrderDetailsDto> getOrderDetailsById(Long id);
 
+    Optional<Integer> getOrderVersion(Long id);
+
     Page<OrderInfoDto> getOrders(Pageable pageable, OrderSearchParams searchParams);
 
+    Slice<OrderInfoDto> getOrdersAfter(OrderCursor cursor, int size, OrderSearchParams searchParams);
+
     void deleteOrder(Long id);
 
-    Optional<OrderDetailsDto> updateOrder(Long id, OrderDetailsDto updatedOrder);
+    /**
+     * @param expectedVersion version the client read the order at, {@code null} to update regardless
+     */
+    Optional<OrderDetailsDto> updateOrder(Long id, OrderDetailsDto updatedOrder, Integer expectedVersion);
 
-    Optional<OrderDetailsDto> updateOrderPartially(Long id, OrderDetailsDto updatedOrder);
+    Optional<OrderDetailsDto> updateOrderPartially(Long id, OrderDetailsDto updatedOrder, Integer expectedVersion);
 }
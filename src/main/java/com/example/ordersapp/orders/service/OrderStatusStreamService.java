@@ -0,0 +1,8 @@
+package com.example.ordersapp.orders.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface OrderStatusStreamService {
+
+    SseEmitter subscribe(Long customerId);
+}
@@ -0,0 +1,16 @@
+package com.example.ordersapp.orders.service;
+
+import com.example.ordersapp.orders.model.dto.ProductImportSummaryDto;
+import com.example.ordersapp.orders.model.enums.FileFormat;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface ProductImportService {
+
+    /**
+     * Upserts products read from the input by sku and writes an NDJSON report to the output: one entry per rejected
+     * row, followed by a summary
+     */
+    ProductImportSummaryDto importProducts(InputStream in, FileFormat format, OutputStream report) throws IOException;
+}
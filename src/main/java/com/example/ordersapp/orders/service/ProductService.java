@@ -12,11 +12,21 @@ public interface ProductService {
 
     Optional<ProductDto> getProductById(Long id);
 
+    /**
+     * @return version as cached with the stock quantity, it lags behind the database as much as the stock does
+     */
+    Optional<Integer> getProductVersion(Long id);
+
     Page<ProductDto> getProducts(Pageable pageable, ProductSearchParams searchParams);
 
     void deleteProduct(Long id);
 
-    Optional<ProductDto> updateProduct(Long id, ProductDto updatedProduct);
+    /**
+     * @param expectedVersion version the client read the product at, {@code null} to update regardless
+     */
+    Optional<ProductDto> updateProduct(Long id, ProductDto updatedProduct, Integer expectedVersion);
+
+    Optional<ProductDto> updateProductPartially(Long id, ProductDto updatedOrder, Integer expectedVersion);
 
-    Optional<ProductDto> updateProductPartially(Long id, ProductDto updatedOrder);
+    Optional<ProductDto> updateStockShards(Long id, int shards);
 }
@@ -0,0 +1,24 @@
+package com.example.ordersapp.orders.service;
+
+import com.example.ordersapp.orders.model.dto.DailySalesDto;
+import com.example.ordersapp.orders.model.dto.PaymentMethodSalesDto;
+import com.example.ordersapp.orders.model.dto.ProductSalesDto;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Sales reports served from the daily rollups, date ranges include both ends
+ */
+public interface SalesAnalyticsService {
+
+    List<DailySalesDto> getDailySales(LocalDate from, LocalDate to);
+
+    List<ProductSalesDto> getTopProductSales(LocalDate from, LocalDate to, int limit);
+
+    List<PaymentMethodSalesDto> getPaymentMethodSales(LocalDate from, LocalDate to);
+
+    /**
+     * Recomputes the rollups of the given days from the orders, one day per transaction
+     */
+    void rebuildRollups(LocalDate from, LocalDate to);
+}
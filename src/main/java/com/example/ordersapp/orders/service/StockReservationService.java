@@ -0,0 +1,10 @@
+package com.example.ordersapp.orders.service;
+
+import java.util.Map;
+
+public interface StockReservationService {
+
+    void reserve(Map<Long, Integer> quantitiesByProductId);
+
+    void release(Map<Long, Integer> quantitiesByProductId);
+}
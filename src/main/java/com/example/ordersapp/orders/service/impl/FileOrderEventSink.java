@@ -0,0 +1,37 @@
+package com.example.ordersapp.orders.service.impl;
+
+import com.example.ordersapp.orders.model.event.OrderOutboxMessage;
+import com.example.ordersapp.orders.service.OrderEventSink;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends every message payload as a line to a local file, for development and tests
+ */
+public class FileOrderEventSink implements OrderEventSink {
+
+    private final Path file;
+
+    public FileOrderEventSink(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void publish(List<OrderOutboxMessage> messages) {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OrderOutboxMessage message : messages) {
+                writer.write(message.payload());
+                writer.newLine();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to append order events to " + file, ex);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.ordersapp.orders.service.impl;
+
+import com.example.ordersapp.config.IdempotencyProperties;
+import com.example.ordersapp.orders.model.dto.NewOrderDto;
+import com.example.ordersapp.orders.model.dto.projection.IdempotencyKeyRow;
+import com.example.ordersapp.orders.repository.IdempotencyKeyRepository;
+import com.example.ordersapp.orders.service.IdempotentOrderService;
+import com.example.ordersapp.orders.service.OrderService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.validation.ValidationException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Responses are looked up in memory, then in the database, and only a key found in neither creates the order. The key
+ * is inserted in the transaction creating the order, so a duplicate sent to another instance waits for that
+ * transaction on the key's row and replays its response once committed. Duplicates sent to the same instance wait for
+ * the in-flight request itself without taking a connection.
+ * <p>
+ * Failed creations store nothing, a retry after a failure creates the order again. Duplicates waiting for a failing
+ * request fail with it.
+ */
+@Slf4j
+@Service
+public class IdempotentOrderServiceImpl implements IdempotentOrderService, SchedulingConfigurer {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final String KEY_REUSED_MSG = "Idempotency key %s has already been used for a different order";
+    private static final String KEY_PURGED_MSG = "Idempotency key %s expired while in use, please submit it again";
+
+    private final OrderService orderService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotencyProperties properties;
+    private final Cache<String, StoredResponse> responses;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotentOrderServiceImpl(OrderService orderService, IdempotencyKeyRepository idempotencyKeyRepository,
+        ObjectMapper objectMapper, TransactionTemplate transactionTemplate, IdempotencyProperties properties) {
+        this.orderService = orderService;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        // Expire with the database row, not a full time to live after being loaded into memory
+        this.responses = Caffeine.newBuilder()
+            .maximumSize(properties.maximumSize())
+            .expireAfter(new Expiry<String, StoredResponse>() {
+                @Override
+                public long expireAfterCreate(String key, StoredResponse response, long currentTime) {
+                    return Duration.between(LocalDateTime.now(), response.createdAt().plus(properties.timeToLive()))
+                        .toNanos();
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, StoredResponse response, long currentTime,
+                    long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String key, StoredResponse response, long currentTime,
+                    long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::purgeExpired, properties.purgeInterval());
+    }
+
+    @Override
+    public NewOrderDto createOrder(String idempotencyKey, NewOrderDto order) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException("Idempotency key must have between 1 and %d characters"
+                .formatted(MAX_KEY_LENGTH));
+        }
+        String requestHash = hash(order);
+
+        StoredResponse response = responses.getIfPresent(idempotencyKey);
+        if (response == null) {
+            CompletableFuture<StoredResponse> created = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> pending = inFlight.putIfAbsent(idempotencyKey, created);
+            response = pending == null
+                ? createOnce(idempotencyKey, requestHash, order, created)
+                : await(pending);
+        }
+
+        if (!response.requestHash().equals(requestHash)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, KEY_REUSED_MSG.formatted(idempotencyKey));
+        }
+        return response.order();
+    }
+
+    /**
+     * Deletes expired keys in batches until none is left or deleting fails
+     */
+    public void purgeExpired() {
+        try {
+            LocalDateTime createdBefore = LocalDateTime.now().minus(properties.timeToLive());
+            int purged = 0;
+            int deleted;
+            do {
+                deleted = idempotencyKeyRepository.deleteCreatedBefore(createdBefore, properties.purgeBatchSize());
+                purged += deleted;
+            } while (deleted == properties.purgeBatchSize());
+            log.debug("Purged {} expired idempotency keys", purged);
+        } catch (RuntimeException ex) {
+            log.error("Failed to purge expired idempotency keys, retrying in {}", properties.purgeInterval(), ex);
+        }
+    }
+
+    private StoredResponse createOnce(String idempotencyKey, String requestHash, NewOrderDto order,
+        CompletableFuture<StoredResponse> created) {
+        try {
+            StoredResponse response = findStored(idempotencyKey)
+                .orElseGet(() -> create(idempotencyKey, requestHash, order));
+            responses.put(idempotencyKey, response);
+            created.complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            created.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(idempotencyKey, created);
+        }
+    }
+
+    private StoredResponse create(String idempotencyKey, String requestHash, NewOrderDto order) {
+        LocalDateTime createdAt = LocalDateTime.now();
+        StoredResponse response = transactionTemplate.execute(status -> {
+            idempotencyKeyRepository.deleteCreatedBefore(idempotencyKey, createdAt.minus(properties.timeToLive()));
+            if (!idempotencyKeyRepository.add(idempotencyKey, requestHash, createdAt)) {
+                return null;
+            }
+            NewOrderDto createdOrder = orderService.createOrder(order);
+            idempotencyKeyRepository.complete(idempotencyKey, write(createdOrder));
+            return new StoredResponse(requestHash, createdOrder, createdAt);
+        });
+        if (response != null) {
+            return response;
+        }
+        // Inserted by another instance, whose transaction has committed once the insert above failed
+        return findStored(idempotencyKey)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT,
+                KEY_PURGED_MSG.formatted(idempotencyKey)));
+    }
+
+    private Optional<StoredResponse> findStored(String idempotencyKey) {
+        LocalDateTime createdAfter = LocalDateTime.now().minus(properties.timeToLive());
+        return idempotencyKeyRepository.findCreatedAfter(idempotencyKey, createdAfter)
+            .map(this::read);
+    }
+
+    private static StoredResponse await(CompletableFuture<StoredResponse> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private String hash(NewOrderDto order) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(order)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Failed to hash order", ex);
+        }
+    }
+
+    private String write(NewOrderDto order) {
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize order " + order.id(), ex);
+        }
+    }
+
+    private StoredResponse read(IdempotencyKeyRow row) {
+        try {
+            return new StoredResponse(row.requestHash(), objectMapper.readValue(row.response(), NewOrderDto.class),
+                row.createdAt());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to deserialize stored order", ex);
+        }
+    }
+
+    private record StoredResponse(String requestHash, NewOrderDto order, LocalDateTime createdAt) {
+
+    }
+}
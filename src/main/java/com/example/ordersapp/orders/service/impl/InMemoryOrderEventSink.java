@@ -0,0 +1,35 @@
+package com.example.ordersapp.orders.service.impl;
+
+import com.example.ordersapp.orders.model.event.OrderOutboxMessage;
+import com.example.ordersapp.orders.service.OrderEventSink;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recent messages in memory, for development and tests
+ */
+public class InMemoryOrderEventSink implements OrderEventSink {
+
+    private final int capacity;
+    private final Deque<OrderOutboxMessage> messages = new ArrayDeque<>();
+
+    public InMemoryOrderEventSink(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<OrderOutboxMessage> newMessages) {
+        messages.addAll(newMessages);
+        while (messages.size() > capacity) {
+            messages.removeFirst();
+        }
+    }
+
+    /**
+     * @return kept messages, oldest first
+     */
+    public synchronized List<OrderOutboxMessage> getMessages() {
+        return List.copyOf(messages);
+    }
+}
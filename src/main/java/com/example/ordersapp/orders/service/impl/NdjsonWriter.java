@@ -0,0 +1,37 @@
+package com.example.ordersapp.orders.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * One JSON document per line. Nothing is flushed before {@link #flush()}, so the output is sent in large chunks rather
+ * than one per document. The stream is left open.
+ *
+ * @param <T> type of the written values, {@code Object} serializes each value as its runtime type
+ */
+final class NdjsonWriter<T> {
+
+    private final ObjectWriter objectWriter;
+    private final JsonGenerator generator;
+
+    NdjsonWriter(ObjectMapper objectMapper, Class<T> type, OutputStream out) throws IOException {
+        this.objectWriter = objectMapper.writerFor(type)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.createGenerator(out)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .setRootValueSeparator(null);
+    }
+
+    void write(T value) throws IOException {
+        objectWriter.writeValue(generator, value);
+        generator.writeRaw('\n');
+    }
+
+    void flush() throws IOException {
+        generator.flush();
+    }
+}
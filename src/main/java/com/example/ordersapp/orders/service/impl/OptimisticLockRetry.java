@@ -0,0 +1,80 @@
+package com.example.ordersapp.orders.service.impl;
+
+import com.example.ordersapp.config.OptimisticLockRetryProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs an update in its own transaction and runs it again when the transaction loses an optimistic lock, after a
+ * random pause below a limit doubling with every attempt, so conflicting writers spread out instead of colliding
+ * again. Every attempt reloads the entity and applies the update to its current state, with the same validation as the
+ * first one; an update expecting a specific version therefore fails with 412 instead of being retried.
+ * <p>
+ * Called inside a transaction, the update runs once, only the outer transaction could be run again.
+ * <p>
+ * Counts every lost lock in {@code ordersapp.optimistic.lock.conflicts} and every attempt following one in
+ * {@code ordersapp.optimistic.lock.retries}, both tagged with the operation.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OptimisticLockRetry {
+
+    static final String CONFLICTS_METRIC = "ordersapp.optimistic.lock.conflicts";
+    static final String RETRIES_METRIC = "ordersapp.optimistic.lock.retries";
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final OptimisticLockRetryProperties properties;
+    private final Map<CounterKey, Counter> counters = new ConcurrentHashMap<>();
+
+    public <T> T execute(String operation, Supplier<T> update) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return update.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> update.get());
+            } catch (OptimisticLockingFailureException ex) {
+                counter(CONFLICTS_METRIC, operation).increment();
+                if (attempt >= properties.maxAttempts()) {
+                    throw ex;
+                }
+                log.debug("{} lost its optimistic lock on attempt {}, retrying", operation, attempt);
+                backOff(attempt, ex);
+                counter(RETRIES_METRIC, operation).increment();
+            }
+        }
+    }
+
+    private void backOff(int attempt, OptimisticLockingFailureException conflict) {
+        long limit = Math.min(properties.maxBackoff().toMillis(),
+            properties.initialBackoff().toMillis() << Math.min(attempt - 1, 30));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(limit + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return counters.computeIfAbsent(new CounterKey(name, operation), key -> Counter.builder(key.name())
+            .tag("operation", key.operation())
+            .register(meterRegistry));
+    }
+
+    private record CounterKey(String name, String operation) {
+
+    }
+}
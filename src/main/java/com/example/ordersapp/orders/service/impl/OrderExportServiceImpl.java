@@ -0,0 +1,60 @@
+package com.example.ordersapp.orders.service.impl;
+
+import com.example.ordersapp.orders.model.dto.OrderExportDto;
+import com.example.ordersapp.orders.model.dto.OrderExportItemDto;
+import com.example.ordersapp.orders.model.dto.OrderExportParams;
+import com.example.ordersapp.orders.model.dto.projection.OrderExportRow;
+import com.example.ordersapp.orders.model.enums.FileFormat;
+import com.example.ordersapp.orders.repository.OrderRepository;
+import com.example.ordersapp.orders.service.OrderExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Streams orders from a forward-only result set straight into the output, one order at a time, so memory use stays
+ * the same however many orders are exported. Rows of one order arrive next to each other and are folded into a single
+ * {@link OrderExportDto} before it is written.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class OrderExportServiceImpl implements OrderExportService {
+
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void exportOrders(OrderExportParams params, FileFormat format, OutputStream out) throws IOException {
+        OrderExportWriter writer = OrderExportWriter.of(format, params.includeItems(), objectMapper, out);
+        writer.writeHeader();
+
+        try (Stream<OrderExportRow> rows = orderRepository.streamOrderExportRows(params)) {
+            Iterator<OrderExportRow> iterator = rows.iterator();
+            OrderExportRow row = iterator.hasNext() ? iterator.next() : null;
+
+            while (row != null) {
+                OrderExportRow first = row;
+                List<OrderExportItemDto> items = params.includeItems() ? new ArrayList<>() : null;
+                while (row != null && row.id().equals(first.id())) {
+                    if (items != null && row.itemId() != null) {
+                        items.add(new OrderExportItemDto(row.itemId(), row.productId(), row.quantity(),
+                            row.unitPrice()));
+                    }
+                    row = iterator.hasNext() ? iterator.next() : null;
+                }
+
+                writer.write(new OrderExportDto(first.id(), first.customerId(), first.status(),
+                    first.paymentMethod(), first.orderDate(), first.totalItems(), first.totalPrice(), items));
+            }
+        }
+        writer.flush();
+    }
+}
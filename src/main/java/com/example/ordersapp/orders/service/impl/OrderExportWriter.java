@@ -0,0 +1,122 @@
+package com.example.ordersapp.orders.service.impl;
+
+import com.example.ordersapp.orders.model.dto.OrderExportDto;
+import com.example.ordersapp.orders.model.dto.OrderExportItemDto;
+import com.example.ordersapp.orders.model.enums.FileFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Buffered writer of exported orders. Nothing is flushed before {@link #flush()}, so the output is sent in large chunks
+ * rather than one per order.
+ */
+interface OrderExportWriter {
+
+    void writeHeader() throws IOException;
+
+    void write(OrderExportDto order) throws IOException;
+
+    void flush() throws IOException;
+
+    static OrderExportWriter of(FileFormat format, boolean includeItems, ObjectMapper objectMapper,
+        OutputStream out) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonOrderWriter(objectMapper, out);
+            case CSV -> new CsvWriter(includeItems, out);
+        };
+    }
+
+    /**
+     * One line per order, holding its JSON object. Requested items are nested in their order's object, unlike CSV
+     * they never add lines.
+     */
+    final class NdjsonOrderWriter implements OrderExportWriter {
+
+        private final NdjsonWriter<OrderExportDto> writer;
+
+        NdjsonOrderWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+            this.writer = new NdjsonWriter<>(objectMapper, OrderExportDto.class, out);
+        }
+
+        @Override
+        public void writeHeader() {
+        }
+
+        @Override
+        public void write(OrderExportDto order) throws IOException {
+            writer.write(order);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * One row per order, or per order line when items are included, with the order columns repeated on every line.
+     * All columns are numbers, enum names or timestamps, so no value needs quoting.
+     */
+    final class CsvWriter implements OrderExportWriter {
+
+        private static final String ORDER_COLUMNS = "id,customerId,status,paymentMethod,orderDate,totalItems,totalPrice";
+        private static final String ITEM_COLUMNS = "itemId,productId,quantity,unitPrice";
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        private final boolean includeItems;
+        private final Writer writer;
+
+        CsvWriter(boolean includeItems, OutputStream out) {
+            this.includeItems = includeItems;
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            writer.write(includeItems ? ORDER_COLUMNS + ',' + ITEM_COLUMNS : ORDER_COLUMNS);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(OrderExportDto order) throws IOException {
+            String orderColumns = join(order.id(), order.customerId(), order.status(), order.paymentMethod(),
+                order.orderDate() == null ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(order.orderDate()),
+                order.totalItems(), order.totalPrice());
+            if (!includeItems) {
+                writeLine(orderColumns);
+            } else if (order.orderItems().isEmpty()) {
+                writeLine(orderColumns + ",,,,");
+            } else {
+                for (OrderExportItemDto item : order.orderItems()) {
+                    writeLine(orderColumns + ','
+                        + join(item.id(), item.productId(), item.quantity(), item.unitPrice()));
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        private void writeLine(String line) throws IOException {
+            writer.write(line);
+            writer.write('\n');
+        }
+
+        private static String join(Object... values) {
+            return Stream.of(values)
+                .map(value -> Objects.toString(value, ""))
+                .collect(Collectors.joining(","));
+        }
+    }
+}
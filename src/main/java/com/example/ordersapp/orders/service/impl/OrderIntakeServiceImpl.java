@@ -0,0 +1,175 @@
+package com.example.ordersapp.orders.service.impl;
+
+import com.example.ordersapp.config.OrderIntakeProperties;
+import com.example.ordersapp.orders.model.dto.NewOrderDto;
+import com.example.ordersapp.orders.model.dto.OrderBatchResultDto;
+import com.example.ordersapp.orders.model.dto.OrderIntakeStatusDto;
+import com.example.ordersapp.orders.model.dto.OrderItemDto;
+import com.example.ordersapp.orders.model.enums.BatchResultStatus;
+import com.example.ordersapp.orders.service.OrderIntakeService;
+import com.example.ordersapp.orders.service.OrderService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ValidationException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Accepts orders into a bounded queue and creates them on a single consumer thread, which takes whatever is queued, up
+ * to the configured batch size, and creates it through {@link OrderService#createOrders} in one transaction. Under
+ * load many orders share one commit instead of each request holding a connection for its own transaction; when the
+ * queue is full, submissions are rejected right away instead of waiting.
+ * <p>
+ * Outcomes are kept in memory for a limited time and only on the instance that accepted the order. Queued orders are
+ * tracked apart from the outcomes, so they stay visible however many outcomes are kept; the queue capacity bounds
+ * them. Orders still queued when the application is killed are lost, a regular shutdown waits for the queue to drain.
+ */
+@Slf4j
+@Service
+public class OrderIntakeServiceImpl implements OrderIntakeService {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final String BATCH_FAILED_MSG = "Order could not be created, please submit it again";
+
+    private final OrderService orderService;
+    private final OrderIntakeProperties properties;
+    private final BlockingQueue<QueuedOrder> queue;
+    private final Map<UUID, OrderIntakeStatusDto> pendingStatuses = new ConcurrentHashMap<>();
+    private final Cache<UUID, OrderIntakeStatusDto> statuses;
+    private volatile boolean accepting = true;
+    private Thread consumer;
+
+    public OrderIntakeServiceImpl(OrderService orderService, OrderIntakeProperties properties) {
+        if (properties.batchSize() < 1 || properties.batchSize() > OrderServiceImpl.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Order intake batch size must be between 1 and %d"
+                .formatted(OrderServiceImpl.MAX_BATCH_SIZE));
+        }
+        this.orderService = orderService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.capacity());
+        this.statuses = Caffeine.newBuilder()
+            .maximumSize(properties.maximumStatuses())
+            .expireAfterWrite(properties.statusRetention())
+            .build();
+    }
+
+    @PostConstruct
+    void start() {
+        consumer = Thread.ofPlatform()
+            .name("order-intake")
+            .daemon()
+            .start(this::consume);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        accepting = false;
+        consumer.join(properties.shutdownTimeout());
+        if (!queue.isEmpty()) {
+            log.warn("Shutting down with {} queued orders not created", queue.size());
+        }
+    }
+
+    @Override
+    public OrderIntakeStatusDto submit(NewOrderDto order) {
+        validate(order);
+        UUID trackingId = UUID.randomUUID();
+        OrderIntakeStatusDto status = OrderIntakeStatusDto.queued(trackingId);
+
+        // Stored before queueing, so the consumer cannot record the outcome first and have it overwritten
+        pendingStatuses.put(trackingId, status);
+        if (!accepting || !queue.offer(new QueuedOrder(trackingId, order))) {
+            pendingStatuses.remove(trackingId);
+            throw new RejectedExecutionException("Order intake queue is full, please try again later");
+        }
+        return status;
+    }
+
+    @Override
+    public Optional<OrderIntakeStatusDto> getStatus(String trackingId) {
+        try {
+            UUID id = UUID.fromString(trackingId);
+            // Outcomes are recorded before the pending status is removed, so one of both is always found
+            return Optional.ofNullable(pendingStatuses.get(id))
+                .or(() -> Optional.ofNullable(statuses.getIfPresent(id)));
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException("Invalid tracking id: " + trackingId);
+        }
+    }
+
+    private static void validate(NewOrderDto order) {
+        if (order.orderItems() == null || order.orderItems().isEmpty()) {
+            throw new ValidationException("Order must contain at least one item");
+        }
+        for (OrderItemDto item : order.orderItems()) {
+            if (item.product() == null || item.product().id() == null) {
+                throw new ValidationException("Product id is required for every order item");
+            }
+        }
+    }
+
+    private void consume() {
+        while (accepting || !queue.isEmpty()) {
+            try {
+                createNextBatch(POLL_TIMEOUT_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable ex) {
+                // Nothing else would take over the queue if this thread died
+                log.error("Order intake failed, continuing with the next batch", ex);
+            }
+        }
+    }
+
+    /**
+     * Waits up to the timeout for the first queued order, then creates it together with the orders queued behind it
+     */
+    void createNextBatch(long timeoutMillis) throws InterruptedException {
+        QueuedOrder first = queue.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        List<QueuedOrder> batch = new ArrayList<>(properties.batchSize());
+        batch.add(first);
+        queue.drainTo(batch, properties.batchSize() - 1);
+
+        try {
+            List<OrderBatchResultDto> results = orderService.createOrders(batch.stream()
+                .map(QueuedOrder::order)
+                .toList());
+            results.forEach(result -> {
+                UUID trackingId = batch.get(result.index()).trackingId();
+                complete(result.status() == BatchResultStatus.CREATED
+                    ? OrderIntakeStatusDto.created(trackingId, result.orderId())
+                    : OrderIntakeStatusDto.failed(trackingId, result.error()));
+            });
+        } catch (Throwable ex) {
+            // Errors included, the batch is off the queue and its orders would otherwise stay queued forever
+            log.error("Failed to create batch of {} queued orders", batch.size(), ex);
+            batch.forEach(queuedOrder -> complete(OrderIntakeStatusDto.failed(queuedOrder.trackingId(),
+                BATCH_FAILED_MSG)));
+        }
+    }
+
+    private void complete(OrderIntakeStatusDto outcome) {
+        statuses.put(outcome.trackingId(), outcome);
+        pendingStatuses.remove(outcome.trackingId());
+    }
+
+    private record QueuedOrder(UUID trackingId, NewOrderDto order) {
+
+    }
+}
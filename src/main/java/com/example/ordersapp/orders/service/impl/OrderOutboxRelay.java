@@ -0,0 +1,74 @@
+package com.example.ordersapp.orders.service.impl;
+
+import com.example.ordersapp.config.OutboxProperties;
+import com.example.ordersapp.orders.model.event.OrderOutboxMessage;
+import com.example.ordersapp.orders.repository.OrderOutboxRepository;
+import com.example.ordersapp.orders.service.OrderEventSink;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves messages from the outbox to the {@link OrderEventSink} in id order. Each batch is locked, published and
+ * deleted in one transaction, so a failure leaves it in the outbox to be published again; delivery is at least once.
+ * Relays of several instances lock the same oldest rows and therefore take turns instead of overtaking each other.
+ * <p>
+ * Batches run in READ COMMITTED, which locks only the rows read. Under REPEATABLE READ the locking read also takes
+ * next-key locks up to the supremum, blocking every order transaction inserting into the outbox until the batch has
+ * been published. Locked rows are waited for, not skipped, since skipping them would publish later messages first.
+ * <p>
+ * Ids are assigned on insert, so events of different orders committing concurrently may be relayed slightly out of
+ * commit order. Events of the same order are always relayed in order, its writes cannot commit concurrently.
+ */
+@Slf4j
+@Component
+public class OrderOutboxRelay implements SchedulingConfigurer {
+
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final OrderEventSink orderEventSink;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderOutboxRelay(OrderOutboxRepository orderOutboxRepository, OrderEventSink orderEventSink,
+        OutboxProperties properties, PlatformTransactionManager transactionManager) {
+        this.orderOutboxRepository = orderOutboxRepository;
+        this.orderEventSink = orderEventSink;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::relay, properties.pollInterval());
+    }
+
+    /**
+     * Relays batches until the outbox is empty or a batch fails
+     */
+    public void relay() {
+        try {
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed == properties.batchSize());
+        } catch (RuntimeException ex) {
+            log.error("Failed to relay order events, retrying in {}", properties.pollInterval(), ex);
+        }
+    }
+
+    private int relayBatch() {
+        List<OrderOutboxMessage> messages = orderOutboxRepository.lockOldest(properties.batchSize());
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        orderEventSink.publish(messages);
+        orderOutboxRepository.deleteAllById(messages.stream().map(OrderOutboxMessage::id).toList());
+        return messages.size();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.ordersapp.orders.service.impl;
+
+import com.example.ordersapp.orders.model.event.OrderCreatedEvent;
+import com.example.ordersapp.orders.model.event.OrderLifecycleMessage;
+import com.example.ordersapp.orders.model.event.OrderOutboxMessage;
+import com.example.ordersapp.orders.model.event.OrderUpdatedEvent;
+import com.example.ordersapp.orders.repository.OrderOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Writes created and status-changed orders to the outbox, in the same transaction as the order itself, so an event is
+ * relayed if and only if its order write committed. Messages are collected for the whole transaction and inserted in
+ * one batch just before it commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderOutboxWriter {
+
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        currentMessages().add(toOutboxMessage(OrderLifecycleMessage.created(event.order())));
+    }
+
+    @EventListener
+    public void onOrderUpdated(OrderUpdatedEvent event) {
+        if (event.isStatusChanged()) {
+            currentMessages().add(toOutboxMessage(OrderLifecycleMessage.statusChanged(event.previous(), event.order())));
+        }
+    }
+
+    private OrderOutboxMessage toOutboxMessage(OrderLifecycleMessage message) {
+        try {
+            return new OrderOutboxMessage(null, message.orderId(), message.type(),
+                objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize order event " + message.eventId(), ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OrderOutboxMessage> currentMessages() {
+        List<OrderOutboxMessage> messages = (List<OrderOutboxMessage>) TransactionSynchronizationManager.getResource(this);
+        if (messages != null) {
+            return messages;
+        }
+
+        List<OrderOutboxMessage> newMessages = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, newMessages);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                orderOutboxRepository.addAll(newMessages);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(OrderOutboxWriter.this);
+            }
+        });
+        return newMessages;
+    }
+}
@@ -1,55 +1,104 @@
 package com.example.ordersapp.orders.service.impl;
 
+import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 
 import com.example.ordersapp.orders.model.Customer;
 import com.example.ordersapp.orders.model.Order;
 import com.example.ordersapp.orders.model.OrderItem;
 import com.example.ordersapp.orders.model.Product;
 import com.example.ordersapp.orders.model.dto.NewOrderDto;
+import com.example.ordersapp.orders.model.dto.OrderBatchResultDto;
+import com.example.ordersapp.orders.model.dto.OrderCursor;
 import com.example.ordersapp.orders.model.dto.OrderDetailsDto;
 import com.example.ordersapp.orders.model.dto.OrderInfoDto;
 import com.example.ordersapp.orders.model.dto.OrderSearchParams;
 import com.example.ordersapp.orders.model.dto.mapper.OrderMapper;
 import com.example.ordersapp.orders.model.enums.OrderStatus;
 import com.example.ordersapp.orders.model.enums.PaymentMethod;
+import com.example.ordersapp.orders.model.event.OrderCreatedEvent;
+import com.example.ordersapp.orders.model.event.OrderDeletedEvent;
+import com.example.ordersapp.orders.model.event.OrderSnapshot;
+import com.example.ordersapp.orders.model.event.OrderUpdatedEvent;
 import com.example.ordersapp.orders.repository.CustomerRepository;
 import com.example.ordersapp.orders.repository.OrderRepository;
 import com.example.ordersapp.orders.repository.ProductRepository;
 import com.example.ordersapp.orders.service.OrderService;
+import com.example.ordersapp.orders.service.StockReservationService;
 import com.example.ordersapp.orders.validation.OrderStatusTransitionValidator;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ValidationException;
+import jakarta.validation.Validator;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
-import lombok.RequiredArgsConstructor;
+import java.util.stream.Stream;
 import org.mapstruct.factory.Mappers;
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
-@RequiredArgsConstructor
 @Transactional
+@Timed(value = "ordersapp.order.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
 public class OrderServiceImpl implements OrderService {
 
     public static final String CUSTOMER_NOT_FOUND_MSG = "Customer with customerId %d not found";
+    public static final String VERSION_MISMATCH_MSG = "Order %d has been modified since it was read";
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final int MAX_SLICE_SIZE = 100;
+    private static final int BATCH_FLUSH_SIZE = 50;
 
     private final OrderRepository orderRepository;
     private final CustomerRepository customerRepository;
     private final ProductRepository productRepository;
+    private final ProductCatalog productCatalog;
+    private final StockReservationService stockReservationService;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Timer stockDeductionTimer;
     private final OrderMapper orderMapper = Mappers.getMapper(OrderMapper.class);
 
-    private static final ExampleMatcher matcher = ExampleMatcher.matching()
-        .withIgnoreCase()
-        .withIgnoreNullValues();
+    public OrderServiceImpl(OrderRepository orderRepository, CustomerRepository customerRepository,
+        ProductRepository productRepository, ProductCatalog productCatalog,
+        StockReservationService stockReservationService, OptimisticLockRetry optimisticLockRetry,
+        EntityManager entityManager, Validator validator, ApplicationEventPublisher eventPublisher,
+        MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.customerRepository = customerRepository;
+        this.productRepository = productRepository;
+        this.productCatalog = productCatalog;
+        this.stockReservationService = stockReservationService;
+        this.optimisticLockRetry = optimisticLockRetry;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.stockDeductionTimer = Timer.builder("ordersapp.order.stock.deduction")
+            .description("Time spent deducting the stock of ordered products")
+            .publishPercentileHistogram()
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+    }
 
     @Override
     public NewOrderDto createOrder(NewOrderDto orderDto) {
@@ -63,8 +112,114 @@ public class OrderServiceImpl implements OrderService {
         order.setCustomer(customer);
         order.setOrderDate(LocalDateTime.now());
         order.setOrderItems(getProductsFromDb(order));
+        order.recalculateTotals();
+
+        Order savedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderCreatedEvent(orderMapper.toSnapshot(savedOrder)));
+        return orderMapper.toDto(savedOrder);
+    }
+
+    @Override
+    public List<OrderBatchResultDto> createOrders(List<NewOrderDto> orderDtos) {
+        if (orderDtos.isEmpty() || orderDtos.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Batch must contain between 1 and %d orders".formatted(MAX_BATCH_SIZE));
+        }
+
+        Map<Long, Customer> customers = findAllById(customerRepository::findAllById, orderDtos.stream()
+            .map(NewOrderDto::customerId), Customer::getId);
+        // Locking every product of the batch upfront, in id order, keeps per-order reservations from deadlocking
+        Map<Long, Product> products = findAllById(productRepository::findAllByIdInOrderById, orderDtos.stream()
+            .filter(orderDto -> orderDto.orderItems() != null)
+            .flatMap(orderDto -> orderDto.orderItems().stream())
+            .filter(item -> item.product() != null)
+            .map(item -> item.product().id()), Product::getId);
+
+        List<OrderBatchResultDto> results = new ArrayList<>(orderDtos.size());
+        List<Order> unflushedOrders = new ArrayList<>(BATCH_FLUSH_SIZE);
+        LocalDateTime orderDate = LocalDateTime.now();
+
+        for (int index = 0; index < orderDtos.size(); index++) {
+            try {
+                Order order = createBatchOrder(orderDtos.get(index), customers, products, orderDate);
+                // Persisted past the repository proxy, which would doom the whole batch on an exception
+                entityManager.persist(order);
+                unflushedOrders.add(order);
+                eventPublisher.publishEvent(new OrderCreatedEvent(orderMapper.toSnapshot(order)));
+                results.add(OrderBatchResultDto.created(index, order.getId()));
+            } catch (ValidationException ex) {
+                results.add(OrderBatchResultDto.failed(index, ex.getMessage()));
+            } catch (ResponseStatusException ex) {
+                results.add(OrderBatchResultDto.failed(index, ex.getReason()));
+            }
+
+            if (unflushedOrders.size() == BATCH_FLUSH_SIZE) {
+                flushAndDetach(unflushedOrders);
+            }
+        }
+        flushAndDetach(unflushedOrders);
+
+        return results;
+    }
+
+    /**
+     * Builds and validates the order before its stock is reserved, so nothing taken has to be put back when the order
+     * turns out to be invalid, and persisting the order does not fail validation afterwards
+     */
+    private Order createBatchOrder(NewOrderDto orderDto, Map<Long, Customer> customers, Map<Long, Product> products,
+        LocalDateTime orderDate) {
+        validate(orderDto);
+        Customer customer = customers.get(orderDto.customerId());
+        if (customer == null) {
+            throw customerNotFound(orderDto.customerId());
+        }
 
-        return orderMapper.toDto(orderRepository.save(order));
+        Order order = orderMapper.toEntity(orderDto);
+        if (order.getOrderItems() == null || order.getOrderItems().isEmpty()) {
+            throw new ValidationException("Order must contain at least one item");
+        }
+
+        Map<Long, Integer> orderedQuantities = getOrderedQuantities(order);
+        orderedQuantities.keySet().forEach(productId -> {
+            if (!products.containsKey(productId)) {
+                throw new ValidationException("Invalid product id: " + productId);
+            }
+        });
+
+        order.setStatus(getInitialStatus(order));
+        order.setCustomer(customer);
+        order.setOrderDate(orderDate);
+        order.setOrderItems(attachProducts(order, products));
+        order.recalculateTotals();
+        validate(order);
+        reserveStock(orderedQuantities);
+        return order;
+    }
+
+    private <T> void validate(T object) {
+        Set<ConstraintViolation<T>> violations = validator.validate(object);
+        if (!violations.isEmpty()) {
+            throw new ValidationException(violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(joining(", ")));
+        }
+    }
+
+    private void flushAndDetach(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        orderRepository.flush();
+        orders.forEach(entityManager::detach);
+        orders.clear();
+    }
+
+    private static <T> Map<Long, T> findAllById(Function<Collection<Long>, List<T>> finder,
+        Stream<Long> ids, Function<T, Long> idGetter) {
+        Set<Long> distinctIds = ids.filter(Objects::nonNull).collect(toSet());
+        return finder.apply(distinctIds)
+            .stream()
+            .collect(toMap(idGetter, Function.identity()));
     }
 
     private static OrderStatus getInitialStatus(Order order) {
@@ -72,14 +227,34 @@ public class OrderServiceImpl implements OrderService {
     }
 
     private List<OrderItem> getProductsFromDb(Order order) {
-        List<Long> productIds = order.getOrderItems().stream()
-            .map(item -> item.getProduct().getId())
-            .toList();
+        Map<Long, Integer> orderedQuantities = getOrderedQuantities(order);
+        reserveStock(orderedQuantities);
 
-        Map<Long, Product> orderedProducts = productRepository.findAllById(productIds)
+        Map<Long, Product> orderedProducts = productRepository.findAllById(orderedQuantities.keySet())
             .stream()
             .collect(toMap(Product::getId, Function.identity()));
 
+        return attachProducts(order, orderedProducts);
+    }
+
+    private void reserveStock(Map<Long, Integer> orderedQuantities) {
+        stockDeductionTimer.record(() -> stockReservationService.reserve(orderedQuantities));
+    }
+
+    private static Map<Long, Integer> getOrderedQuantities(Order order) {
+        Map<Long, Integer> orderedQuantities = new HashMap<>();
+        order.getOrderItems().forEach(orderItem -> {
+            Long productId = orderItem.getProduct() == null ? null : orderItem.getProduct().getId();
+            if (productId == null) {
+                throw new ValidationException("Product id is required for every order item");
+            }
+            orderedQuantities.merge(productId, orderItem.getQuantity(), Integer::sum);
+        });
+        return orderedQuantities;
+    }
+
+    private List<OrderItem> attachProducts(Order order, Map<Long, Product> orderedProducts) {
+        productCatalog.evictStock(orderedProducts.keySet());
         return order.getOrderItems().stream()
             .map(orderItem -> {
                 Long productId = orderItem.getProduct().getId();
@@ -89,7 +264,6 @@ public class OrderServiceImpl implements OrderService {
                     throw new ValidationException("Invalid product id: " + productId);
                 }
 
-                productFromDb.subtractFromStock(orderItem.getQuantity());
                 orderItem.setProduct(productFromDb);
                 orderItem.setUnitPrice(productFromDb.getPrice());//No discount
                 return orderItem;
@@ -100,46 +274,119 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional(readOnly = true)
     public Optional<OrderDetailsDto> getOrderDetailsById(Long id) {
-        return orderRepository.findById(id)
-            .map(orderMapper::toOrderDetailsDto);
+        return orderRepository.findOrderHeaderById(id)
+            .map(header -> orderMapper.toOrderDetailsDto(header, orderRepository.findOrderItemRowsByOrderId(id)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Integer> getOrderVersion(Long id) {
+        return orderRepository.findVersionById(id);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<OrderInfoDto> getOrders(Pageable pageable, OrderSearchParams searchParams) {
-        Example<Order> orderExample = Example.of(orderMapper.searchParamsToEntity(searchParams), matcher);
-        return orderRepository.findAllWithCustomerId(orderExample, pageable);
+        return orderRepository.findOrderInfos(searchParams, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<OrderInfoDto> getOrdersAfter(OrderCursor cursor, int size, OrderSearchParams searchParams) {
+        if (size < 1 || size > MAX_SLICE_SIZE) {
+            throw new ValidationException("Slice size must be between 1 and %d".formatted(MAX_SLICE_SIZE));
+        }
+        return orderRepository.findOrderInfosAfter(searchParams, cursor, size);
     }
 
     @Override
     public void deleteOrder(Long id) {
-        orderRepository.deleteById(id);
+        orderRepository.findById(id).ifPresent(order -> {
+            OrderSnapshot deletedOrder = orderMapper.toSnapshot(order);
+            orderRepository.delete(order);
+            eventPublisher.publishEvent(new OrderDeletedEvent(deletedOrder));
+        });
     }
 
     @Override
-    public Optional<OrderDetailsDto> updateOrder(Long id, OrderDetailsDto updatedOrder) {
+    public Optional<OrderDetailsDto> updateOrder(Long id, OrderDetailsDto updatedOrder, Integer expectedVersion) {
+        if (!isCurrentVersion(id, expectedVersion)) {
+            return Optional.empty();
+        }
         return orderRepository.findById(id)
             .map(existingOrder -> {
+                checkVersion(id, expectedVersion, existingOrder.getVersion());
                 OrderStatusTransitionValidator.validate(existingOrder, updatedOrder.getStatus());
+                OrderSnapshot previousOrder = orderMapper.toSnapshot(existingOrder);
                 Order order = orderMapper.toEntity(updatedOrder);
-                return orderMapper.toOrderDetailsDto(orderRepository.save(order));
+                // Identity, version, customer and date of the order cannot be replaced, they stay as persisted
+                order.setId(id);
+                order.setVersion(existingOrder.getVersion());
+                order.setCustomer(existingOrder.getCustomer());
+                order.setOrderDate(existingOrder.getOrderDate());
+                if (order.getOrderItems() == null) {
+                    // Merging no items would leave their rows in place while the rollups drop them
+                    order.setOrderItems(existingOrder.getOrderItems());
+                }
+                order.setTotalItems(existingOrder.getTotalItems());
+                order.setTotalPrice(existingOrder.getTotalPrice());
+                order.recalculateTotals();
+                // Flushed so an incomplete order fails validation here, the event then carries what was written
+                Order savedOrder = orderRepository.saveAndFlush(order);
+                eventPublisher.publishEvent(new OrderUpdatedEvent(previousOrder, orderMapper.toSnapshot(savedOrder)));
+                return orderMapper.toOrderDetailsDto(savedOrder);
             });
     }
 
     @Override
-    public Optional<OrderDetailsDto> updateOrderPartially(Long id, OrderDetailsDto patch) {
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<OrderDetailsDto> updateOrderPartially(Long id, OrderDetailsDto patch, Integer expectedVersion) {
+        return optimisticLockRetry.execute("updateOrderPartially", () -> patchOrder(id, patch, expectedVersion));
+    }
+
+    private Optional<OrderDetailsDto> patchOrder(Long id, OrderDetailsDto patch, Integer expectedVersion) {
+        if (!isCurrentVersion(id, expectedVersion)) {
+            return Optional.empty();
+        }
         return orderRepository.findById(id)
             .map(existingOrder -> {
+                checkVersion(id, expectedVersion, existingOrder.getVersion());
                 OrderStatus patchWithStatus = patch.getStatus();
                 if (patchWithStatus != null) {
                     OrderStatusTransitionValidator.validate(existingOrder, patchWithStatus);
                 }
 
+                OrderSnapshot previousOrder = orderMapper.toSnapshot(existingOrder);
                 Order updatedOrder = orderMapper.partialUpdate(patch, existingOrder);
-                return orderMapper.toOrderDetailsDto(orderRepository.save(updatedOrder));
+                if (patch.getOrderItems() != null) {
+                    updatedOrder.recalculateTotals();
+                }
+                Order savedOrder = orderRepository.save(updatedOrder);
+                eventPublisher.publishEvent(new OrderUpdatedEvent(previousOrder, orderMapper.toSnapshot(savedOrder)));
+                return orderMapper.toOrderDetailsDto(savedOrder);
             });
     }
 
+    /**
+     * Compares the expected version with a version-only read, so a stale update fails before the order is loaded
+     *
+     * @return {@code false} if the order does not exist
+     */
+    private boolean isCurrentVersion(Long id, Integer expectedVersion) {
+        if (expectedVersion == null) {
+            return true;
+        }
+        Optional<Integer> currentVersion = orderRepository.findVersionById(id);
+        currentVersion.ifPresent(version -> checkVersion(id, expectedVersion, version));
+        return currentVersion.isPresent();
+    }
+
+    private static void checkVersion(Long id, Integer expectedVersion, Integer currentVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, VERSION_MISMATCH_MSG.formatted(id));
+        }
+    }
+
     private static ResponseStatusException customerNotFound(Long customerId) {
         return new ResponseStatusException(HttpStatus.NOT_FOUND, CUSTOMER_NOT_FOUND_MSG.formatted(customerId));
     }
@@ -0,0 +1,169 @@
+package com.example.ordersapp.orders.service.impl;
+
+import com.example.ordersapp.config.OrderStreamProperties;
+import com.example.ordersapp.orders.model.dto.OrderStatusChangeDto;
+import com.example.ordersapp.orders.model.event.OrderUpdatedEvent;
+import com.example.ordersapp.orders.repository.CustomerRepository;
+import com.example.ordersapp.orders.service.OrderStatusStreamService;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+/**
+ * Fans committed order status changes out to the open streams of the order's customer. Streams are async servlet
+ * requests, an idle stream holds a connection but no thread. Events are sent on short-lived virtual threads, at most
+ * one per stream at a time, so a stream gets its events in order and a slow client delays nobody else. A client
+ * falling more than {@value #MAX_PENDING_EVENTS} events behind has its stream closed and reconnects.
+ * <p>
+ * Streams only see changes committed by this instance.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderStatusStreamServiceImpl implements OrderStatusStreamService, SchedulingConfigurer {
+
+    static final int MAX_PENDING_EVENTS = 100;
+    private static final String STATUS_CHANGED_EVENT = "order-status-changed";
+
+    private final CustomerRepository customerRepository;
+    private final OrderStreamProperties properties;
+    private final Map<Long, Set<Subscription>> subscriptionsByCustomerId = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Override
+    public SseEmitter subscribe(Long customerId) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                OrderServiceImpl.CUSTOMER_NOT_FOUND_MSG.formatted(customerId));
+        }
+
+        Subscription subscription = new Subscription(customerId, new SseEmitter(properties.timeout().toMillis()));
+        subscriptionsByCustomerId.compute(customerId, (id, subscriptions) -> {
+            Set<Subscription> customerSubscriptions = subscriptions == null ? ConcurrentHashMap.newKeySet() : subscriptions;
+            if (customerSubscriptions.size() >= properties.maxSubscriptionsPerCustomer()) {
+                throw new RejectedExecutionException("Too many open order streams for customer " + customerId);
+            }
+            customerSubscriptions.add(subscription);
+            return customerSubscriptions;
+        });
+
+        SseEmitter emitter = subscription.emitter;
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(ex -> unsubscribe(subscription));
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onOrderUpdated(OrderUpdatedEvent event) {
+        if (!event.isStatusChanged()) {
+            return;
+        }
+        Set<Subscription> subscriptions = subscriptionsByCustomerId.get(event.order().customerId());
+        if (subscriptions == null) {
+            return;
+        }
+
+        OrderStatusChangeDto statusChange = new OrderStatusChangeDto(event.order().id(), event.previous().status(),
+            event.order().status(), LocalDateTime.now());
+        subscriptions.forEach(subscription -> subscription.send(() -> SseEmitter.event()
+            .name(STATUS_CHANGED_EVENT)
+            .data(statusChange)));
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::sendHeartbeats, properties.heartbeatInterval());
+    }
+
+    private void sendHeartbeats() {
+        subscriptionsByCustomerId.values().forEach(subscriptions -> subscriptions.forEach(subscription ->
+            subscription.send(() -> SseEmitter.event().comment("heartbeat"))));
+    }
+
+    int countSubscriptions(Long customerId) {
+        return subscriptionsByCustomerId.getOrDefault(customerId, Set.of()).size();
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        subscriptionsByCustomerId.computeIfPresent(subscription.customerId, (id, subscriptions) -> {
+            subscriptions.remove(subscription);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+
+    @PreDestroy
+    void closeStreams() {
+        subscriptionsByCustomerId.values().forEach(subscriptions -> subscriptions.forEach(subscription ->
+            subscription.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    private final class Subscription {
+
+        private final Long customerId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Supplier<SseEventBuilder>> pendingEvents =
+            new LinkedBlockingQueue<>(MAX_PENDING_EVENTS);
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Subscription(Long customerId, SseEmitter emitter) {
+            this.customerId = customerId;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Event builders cannot be shared between emitters, so every stream builds its own
+         */
+        void send(Supplier<SseEventBuilder> event) {
+            if (!pendingEvents.offer(event)) {
+                log.warn("Closing order stream of customer {}, client is {} events behind", customerId,
+                    MAX_PENDING_EVENTS);
+                unsubscribe(this);
+                emitter.complete();
+                return;
+            }
+            if (sending.compareAndSet(false, true)) {
+                senders.execute(this::sendPending);
+            }
+        }
+
+        private void sendPending() {
+            do {
+                Supplier<SseEventBuilder> event;
+                while ((event = pendingEvents.poll()) != null) {
+                    try {
+                        emitter.send(event.get());
+                    } catch (IOException | IllegalStateException ex) {
+                        // The client is gone, the stream stays marked as sending, so no further sender is started for it
+                        log.debug("Order stream of customer {} closed: {}", customerId, ex.getMessage());
+                        unsubscribe(this);
+                        emitter.completeWithError(ex);
+                        return;
+                    }
+                }
+                sending.set(false);
+            } while (!pendingEvents.isEmpty() && sending.compareAndSet(false, true));
+        }
+    }
+}
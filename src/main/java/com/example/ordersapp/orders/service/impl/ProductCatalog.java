@@ -0,0 +1,91 @@
+package com.example.ordersapp.orders.service.impl;
+
+import static com.example.ordersapp.config.CacheConfig.PRODUCTS_CACHE;
+import static com.example.ordersapp.config.CacheConfig.PRODUCT_LIST_REGION;
+import static com.example.ordersapp.config.CacheConfig.PRODUCT_STOCK_CACHE;
+
+import com.example.ordersapp.orders.model.Product;
+import com.example.ordersapp.orders.model.dto.projection.ProductCatalogRow;
+import com.example.ordersapp.orders.model.dto.projection.ProductStockRow;
+import com.example.ordersapp.orders.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Collection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Read-through cache of products. Name, description and price live in one cache, stock quantity and version in another
+ * with a much shorter time to live. Stock read from here is for display only, order placement always reads it from the
+ * database.
+ * <p>
+ * With the Hibernate second-level cache enabled, products rewritten by an import are evicted from it here as well,
+ * after commit like the caches above. Stock changes invalidate their product in the repository.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCatalog {
+
+    private final ProductRepository productRepository;
+    private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Cacheable(cacheNames = PRODUCTS_CACHE, unless = "#result == null")
+    public ProductCatalogRow findById(Long id) {
+        return productRepository.findCatalogRowById(id).orElse(null);
+    }
+
+    @Cacheable(cacheNames = PRODUCT_STOCK_CACHE, unless = "#result == null")
+    public ProductStockRow findStock(Long id) {
+        return productRepository.findStockById(id).orElse(null);
+    }
+
+    @Caching(evict = {
+        @CacheEvict(cacheNames = PRODUCTS_CACHE),
+        @CacheEvict(cacheNames = PRODUCT_STOCK_CACHE)
+    })
+    public void evict(Long id) {
+    }
+
+    @Caching(evict = {
+        @CacheEvict(cacheNames = PRODUCTS_CACHE, allEntries = true),
+        @CacheEvict(cacheNames = PRODUCT_STOCK_CACHE, allEntries = true)
+    })
+    public void evictAll() {
+        afterCommit(() -> {
+            org.hibernate.Cache secondLevelCache = secondLevelCache();
+            secondLevelCache.evictEntityData(Product.class);
+            secondLevelCache.evictQueryRegion(PRODUCT_LIST_REGION);
+        });
+    }
+
+    public void evictStock(Collection<Long> ids) {
+        Cache stockCache = cacheManager.getCache(PRODUCT_STOCK_CACHE);
+        if (stockCache != null) {
+            ids.forEach(stockCache::evict);
+        }
+    }
+
+    private org.hibernate.Cache secondLevelCache() {
+        return entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
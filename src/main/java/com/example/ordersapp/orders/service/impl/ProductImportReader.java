@@ -0,0 +1,124 @@
+package com.example.ordersapp.orders.service.impl;
+
+import com.example.ordersapp.orders.model.dto.ProductImportRow;
+import com.example.ordersapp.orders.model.enums.FileFormat;
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Reads an import file one row at a time. A row that cannot be parsed is returned with its error, so the rows after
+ * it are still imported.
+ */
+interface ProductImportReader {
+
+    /**
+     * @return next row, {@code null} at the end of the input
+     */
+    ParsedRow next() throws IOException;
+
+    static ProductImportReader of(FileFormat format, ObjectMapper objectMapper, InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return switch (format) {
+            case NDJSON -> new NdjsonReader(objectMapper, reader);
+            case CSV -> new CsvReader(objectMapper, reader);
+        };
+    }
+
+    /**
+     * @param rowNo 1-based position of the row in the file, the CSV header and blank lines are not counted
+     */
+    record ParsedRow(long rowNo, String sku, ProductImportRow row, String error) {
+
+        static ParsedRow parsed(long rowNo, ProductImportRow row) {
+            return new ParsedRow(rowNo, row.sku(), row, null);
+        }
+
+        static ParsedRow failed(long rowNo, String sku, String error) {
+            return new ParsedRow(rowNo, sku, null, error);
+        }
+    }
+
+    /**
+     * One JSON object per line
+     */
+    final class NdjsonReader implements ProductImportReader {
+
+        private final ObjectMapper objectMapper;
+        private final BufferedReader reader;
+        private long rowNo;
+
+        NdjsonReader(ObjectMapper objectMapper, BufferedReader reader) {
+            this.objectMapper = objectMapper;
+            this.reader = reader;
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            String line = reader.readLine();
+            while (line != null && line.isBlank()) {
+                line = reader.readLine();
+            }
+            if (line == null) {
+                return null;
+            }
+
+            rowNo++;
+            try {
+                return ParsedRow.parsed(rowNo, objectMapper.readValue(line, ProductImportRow.class));
+            } catch (JacksonException ex) {
+                return ParsedRow.failed(rowNo, null, ex.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * Comma separated values with a header naming the {@link ProductImportRow} fields, in any order. Fields may be
+     * quoted. A malformed line ends the import, since the parser cannot tell where the next row starts.
+     */
+    final class CsvReader implements ProductImportReader {
+
+        private final ObjectMapper objectMapper;
+        private final MappingIterator<Map<String, String>> rows;
+        private long rowNo;
+
+        CsvReader(ObjectMapper objectMapper, BufferedReader reader) throws IOException {
+            this.objectMapper = objectMapper;
+            this.rows = new CsvMapper()
+                .readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(reader);
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            Map<String, String> values;
+            try {
+                if (!rows.hasNextValue()) {
+                    return null;
+                }
+                values = rows.nextValue();
+            } catch (JacksonException ex) {
+                rows.close();
+                return ParsedRow.failed(++rowNo, null, "Malformed CSV, import stopped: " + ex.getOriginalMessage());
+            }
+
+            rowNo++;
+            try {
+                return ParsedRow.parsed(rowNo, objectMapper.convertValue(values, ProductImportRow.class));
+            } catch (IllegalArgumentException ex) {
+                return ParsedRow.failed(rowNo, values.get("sku"), ex.getCause() instanceof JacksonException cause
+                    ? cause.getOriginalMessage()
+                    : ex.getMessage());
+            }
+        }
+    }
+}
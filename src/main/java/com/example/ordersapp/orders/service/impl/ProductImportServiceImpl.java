@@ -0,0 +1,125 @@
+package com.example.ordersapp.orders.service.impl;
+
+import static java.util.stream.Collectors.joining;
+
+import com.example.ordersapp.orders.model.dto.ProductImportErrorDto;
+import com.example.ordersapp.orders.model.dto.ProductImportRow;
+import com.example.ordersapp.orders.model.dto.ProductImportSummaryDto;
+import com.example.ordersapp.orders.model.enums.FileFormat;
+import com.example.ordersapp.orders.repository.ProductRepository;
+import com.example.ordersapp.orders.service.ProductImportService;
+import com.example.ordersapp.orders.service.impl.ProductImportReader.ParsedRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports a catalog file without ever holding more than one chunk of it in memory. Rows are parsed and validated one
+ * by one and upserted in chunks of {@value #CHUNK_SIZE}, each chunk in its own transaction, so a failed chunk does not
+ * roll back the ones before it. If the database rejects a chunk, its rows are retried one by one to find the culprits.
+ * The report is flushed after every chunk, so the client sees rejected rows while the upload is still running.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportServiceImpl implements ProductImportService {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final ProductCatalog productCatalog;
+    private final ProductSearchIndex productSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public ProductImportSummaryDto importProducts(InputStream in, FileFormat format, OutputStream report)
+        throws IOException {
+        ProductImportReader reader = ProductImportReader.of(format, objectMapper, in);
+        NdjsonWriter<Object> reportWriter = new NdjsonWriter<>(objectMapper, Object.class, report);
+
+        long rows = 0;
+        long imported = 0;
+        List<ParsedRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        try {
+            for (ParsedRow parsedRow = reader.next(); parsedRow != null; parsedRow = reader.next()) {
+                rows++;
+                String error = parsedRow.error() != null ? parsedRow.error() : validate(parsedRow.row());
+                if (error != null) {
+                    reportWriter.write(new ProductImportErrorDto(parsedRow.rowNo(), parsedRow.sku(), error));
+                    continue;
+                }
+
+                chunk.add(parsedRow);
+                if (chunk.size() == CHUNK_SIZE) {
+                    imported += upsert(chunk, reportWriter);
+                    chunk.clear();
+                    reportWriter.flush();
+                }
+            }
+            imported += upsert(chunk, reportWriter);
+        } finally {
+            if (imported > 0) {
+                productCatalog.evictAll();
+                productSearchIndex.rebuild();
+            }
+        }
+
+        ProductImportSummaryDto summary = new ProductImportSummaryDto(rows, imported, rows - imported);
+        reportWriter.write(summary);
+        reportWriter.flush();
+        log.info("Product import finished: {}", summary);
+        return summary;
+    }
+
+    private long upsert(List<ParsedRow> chunk, NdjsonWriter<Object> reportWriter) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        try {
+            upsertInTransaction(chunk.stream().map(ParsedRow::row).toList());
+            return chunk.size();
+        } catch (DataAccessException ex) {
+            log.warn("Import chunk of {} rows rejected, retrying row by row", chunk.size(), ex);
+        }
+
+        long imported = 0;
+        for (ParsedRow parsedRow : chunk) {
+            try {
+                upsertInTransaction(List.of(parsedRow.row()));
+                imported++;
+            } catch (DataAccessException ex) {
+                reportWriter.write(new ProductImportErrorDto(parsedRow.rowNo(), parsedRow.sku(),
+                    ex.getMostSpecificCause().getMessage()));
+            }
+        }
+        return imported;
+    }
+
+    private void upsertInTransaction(List<ProductImportRow> rows) {
+        transactionTemplate.executeWithoutResult(status -> productRepository.upsertAllBySku(rows));
+    }
+
+    private String validate(ProductImportRow row) {
+        Set<ConstraintViolation<ProductImportRow>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+            .sorted()
+            .collect(joining(", "));
+    }
+}
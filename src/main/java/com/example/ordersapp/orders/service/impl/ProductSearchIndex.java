@@ -0,0 +1,426 @@
+package com.example.ordersapp.orders.service.impl;
+
+import com.example.ordersapp.config.ProductSearchProperties;
+import com.example.ordersapp.orders.model.Product;
+import com.example.ordersapp.orders.model.dto.projection.ProductCatalogRow;
+import com.example.ordersapp.orders.model.enums.ProductMatchMode;
+import com.example.ordersapp.orders.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory trigram index of product names and descriptions. Texts are lower-cased, stripped of accents and split into
+ * words, every word is indexed by its trigrams padded the way pg_trgm does it, so word starts get trigrams of their
+ * own. A search only compares the texts of products sharing trigrams with the searched words, and scans all products
+ * only when every searched word is shorter than a trigram.
+ * <p>
+ * The index is built from the database at startup, after imports and periodically, single product writes update it
+ * once their transaction committed. Writes made through other instances of the application are picked up by the next
+ * periodic rebuild. Writes committed while a rebuild reads the database are replayed onto the rebuilt index, since the
+ * rows read may predate them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex implements SchedulingConfigurer {
+
+    public static final int MAX_RESULTS = 1000;
+    private static final double DESCRIPTION_WEIGHT = 0.5;
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}");
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ProductRepository productRepository;
+    private final ProductSearchProperties properties;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock rebuildLock = new ReentrantLock();
+    private Map<Long, IndexedProduct> products = new HashMap<>();
+    private Map<Long, Set<Long>> productIdsByTrigram = new HashMap<>();
+    /**
+     * Writes committed since the running rebuild started, a {@code null} value stands for a removed product. Set only
+     * while a rebuild runs.
+     */
+    private Map<Long, IndexedProduct> writesDuringRebuild;
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::scheduledRebuild, properties.rebuildInterval());
+    }
+
+    /**
+     * Rebuilds the index from the database, concurrent rebuilds run one after another
+     */
+    @PostConstruct
+    public void rebuild() {
+        rebuildLock.lock();
+        lock.writeLock().lock();
+        writesDuringRebuild = new HashMap<>();
+        lock.writeLock().unlock();
+        try {
+            Map<Long, IndexedProduct> newProducts = new HashMap<>();
+            Map<Long, Set<Long>> newProductIdsByTrigram = new HashMap<>();
+            for (ProductCatalogRow row : productRepository.findAllCatalogRows()) {
+                IndexedProduct product = IndexedProduct.of(row.name(), row.description());
+                newProducts.put(row.id(), product);
+                addTrigrams(newProductIdsByTrigram, row.id(), product);
+            }
+
+            lock.writeLock().lock();
+            try {
+                products = newProducts;
+                productIdsByTrigram = newProductIdsByTrigram;
+                writesDuringRebuild.forEach(this::put);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Product search index built with {} products and {} trigrams", newProducts.size(),
+                newProductIdsByTrigram.size());
+        } finally {
+            lock.writeLock().lock();
+            writesDuringRebuild = null;
+            lock.writeLock().unlock();
+            rebuildLock.unlock();
+        }
+    }
+
+    private void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            log.error("Failed to rebuild product search index, retrying in {}", properties.rebuildInterval(), ex);
+        }
+    }
+
+    public void index(Product product) {
+        Long id = product.getId();
+        IndexedProduct indexedProduct = IndexedProduct.of(product.getName(), product.getDescription());
+        afterCommit(() -> write(id, indexedProduct));
+    }
+
+    public void remove(Long id) {
+        afterCommit(() -> write(id, null));
+    }
+
+    private void write(Long id, IndexedProduct product) {
+        lock.writeLock().lock();
+        try {
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.put(id, product);
+            }
+            put(id, product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the indexed product, {@code null} removes it. Callers hold the write lock.
+     */
+    private void put(Long id, IndexedProduct product) {
+        removeTrigrams(id, product == null ? products.remove(id) : products.put(id, product));
+        if (product != null) {
+            addTrigrams(productIdsByTrigram, id, product);
+        }
+    }
+
+    /**
+     * An exact search compares the whole name ignoring case and accents only, words, spacing and punctuation have to
+     * match. The other modes compare words, ignoring spacing and punctuation as well.
+     *
+     * @return ids of the matching products, most relevant first: name matches before description matches, matches
+     * at the start before the ones further in, exact words before typos, shorter names first. At most
+     * {@value #MAX_RESULTS} ids are returned.
+     */
+    public List<Long> search(String text, ProductMatchMode mode) {
+        List<String> words = words(text);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        Query query = mode == ProductMatchMode.EXACT
+            ? new Query(fold(text), mode)
+            : new Query(String.join(" ", words), mode);
+
+        lock.readLock().lock();
+        try {
+            Collection<Long> candidates = mode == ProductMatchMode.FUZZY
+                ? similarWordCandidates(words)
+                : substringCandidates(words);
+            List<Match> matches = new ArrayList<>();
+            for (Long id : candidates) {
+                IndexedProduct product = products.get(id);
+                double score = mode == ProductMatchMode.FUZZY ? product.similarity(words) : product.score(query);
+                if (score > 0) {
+                    matches.add(new Match(id, score, product.name().length()));
+                }
+            }
+            matches.sort(Match.BY_RELEVANCE);
+            return matches.stream()
+                .limit(MAX_RESULTS)
+                .map(Match::id)
+                .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Products containing every trigram of the searched words, unpadded since a word may match inside a longer one.
+     * The rarest trigram is walked and checked against the others, nothing is copied.
+     */
+    private Collection<Long> substringCandidates(List<String> words) {
+        List<Set<Long>> productIdSets = new ArrayList<>();
+        for (String word : words) {
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                Set<Long> ids = productIdsByTrigram.get(trigram(word, i));
+                if (ids == null) {
+                    return List.of();
+                }
+                productIdSets.add(ids);
+            }
+        }
+        if (productIdSets.isEmpty()) {
+            return products.keySet();
+        }
+
+        productIdSets.sort(Comparator.comparingInt(Set::size));
+        Set<Long> rarest = productIdSets.getFirst();
+        List<Set<Long>> others = productIdSets.subList(1, productIdSets.size());
+        return rarest.stream()
+            .filter(id -> others.stream().allMatch(ids -> ids.contains(id)))
+            .toList();
+    }
+
+    /**
+     * Products sharing enough trigrams with every searched word to be within its edit distance. An edit changes at
+     * most three trigrams, a transposition four.
+     */
+    private Collection<Long> similarWordCandidates(List<String> words) {
+        Set<Long> candidates = null;
+        for (String word : words) {
+            if (word.length() < 3) {
+                continue;
+            }
+            Set<Long> trigrams = paddedTrigrams(word);
+            Map<Long, Integer> sharedTrigrams = new HashMap<>();
+            trigrams.forEach(trigram -> productIdsByTrigram.getOrDefault(trigram, Set.of())
+                .forEach(id -> sharedTrigrams.merge(id, 1, Integer::sum)));
+
+            int minSharedTrigrams = Math.max(1, trigrams.size() - 4 * maxEdits(word));
+            Set<Long> wordCandidates = new HashSet<>();
+            sharedTrigrams.forEach((id, shared) -> {
+                if (shared >= minSharedTrigrams) {
+                    wordCandidates.add(id);
+                }
+            });
+            if (candidates == null) {
+                candidates = wordCandidates;
+            } else {
+                candidates.retainAll(wordCandidates);
+            }
+        }
+        return candidates == null ? products.keySet() : candidates;
+    }
+
+    private void addTrigrams(Map<Long, Set<Long>> productIdsByTrigram, Long id, IndexedProduct product) {
+        product.trigrams().forEach(trigram -> productIdsByTrigram.computeIfAbsent(trigram, key -> new HashSet<>())
+            .add(id));
+    }
+
+    private void removeTrigrams(Long id, IndexedProduct product) {
+        if (product == null) {
+            return;
+        }
+        product.trigrams().forEach(trigram -> {
+            Set<Long> ids = productIdsByTrigram.get(trigram);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                productIdsByTrigram.remove(trigram);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    static List<String> words(String text) {
+        return Arrays.stream(WORD_SEPARATORS.split(fold(text)))
+            .filter(word -> !word.isEmpty())
+            .toList();
+    }
+
+    /**
+     * @return the text lower-cased and stripped of accents
+     */
+    static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        // Unlike other accented letters, ł has no decomposition
+        return ACCENTS.matcher(normalized).replaceAll("").replace('ł', 'l');
+    }
+
+    private static Set<Long> paddedTrigrams(String word) {
+        String padded = "  " + word + " ";
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(trigram(padded, i));
+        }
+        return trigrams;
+    }
+
+    private static long trigram(String text, int start) {
+        return (long) text.charAt(start) << 32 | (long) text.charAt(start + 1) << 16 | text.charAt(start + 2);
+    }
+
+    private static int maxEdits(String word) {
+        return word.length() < 3 ? 0 : word.length() < 6 ? 1 : 2;
+    }
+
+    /**
+     * Optimal string alignment distance, a swap of adjacent letters is a single edit
+     */
+    private static int editDistance(String a, String b) {
+        int[][] distance = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            distance[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            distance[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                distance[i][j] = Math.min(Math.min(distance[i - 1][j] + 1, distance[i][j - 1] + 1),
+                    distance[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance[i][j] = Math.min(distance[i][j], distance[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return distance[a.length()][b.length()];
+    }
+
+    private record IndexedProduct(
+        String foldedName,
+        String name,
+        List<String> nameWords,
+        String description,
+        List<String> descriptionWords
+    ) {
+
+        static IndexedProduct of(String name, String description) {
+            List<String> nameWords = words(name);
+            List<String> descriptionWords = words(description);
+            return new IndexedProduct(fold(name), String.join(" ", nameWords), nameWords,
+                String.join(" ", descriptionWords), descriptionWords);
+        }
+
+        Set<Long> trigrams() {
+            Set<Long> trigrams = new HashSet<>();
+            nameWords.forEach(word -> trigrams.addAll(paddedTrigrams(word)));
+            descriptionWords.forEach(word -> trigrams.addAll(paddedTrigrams(word)));
+            return trigrams;
+        }
+
+        double score(Query query) {
+            if (query.mode() == ProductMatchMode.EXACT) {
+                return foldedName.equals(query.text()) ? 1 : 0;
+            }
+            return Math.max(score(name, query), DESCRIPTION_WEIGHT * score(description, query));
+        }
+
+        private static double score(String text, Query query) {
+            if (text.startsWith(query.text())) {
+                return 1;
+            }
+            if (text.contains(query.wordStart())) {
+                return 0.75;
+            }
+            return query.mode() == ProductMatchMode.SUBSTRING && text.contains(query.text()) ? 0.5 : 0;
+        }
+
+        /**
+         * @return mean similarity of the searched words to their most similar word, zero if one of them has none
+         */
+        double similarity(List<String> searchedWords) {
+            double total = 0;
+            for (String searchedWord : searchedWords) {
+                double similarity = Math.max(similarity(searchedWord, nameWords),
+                    DESCRIPTION_WEIGHT * similarity(searchedWord, descriptionWords));
+                if (similarity == 0) {
+                    return 0;
+                }
+                total += similarity;
+            }
+            return total / searchedWords.size();
+        }
+
+        private static double similarity(String searchedWord, List<String> words) {
+            double best = 0;
+            for (String word : words) {
+                best = Math.max(best, similarity(searchedWord, word));
+            }
+            return best;
+        }
+
+        private static double similarity(String searchedWord, String word) {
+            if (word.equals(searchedWord)) {
+                return 1;
+            }
+            if (word.startsWith(searchedWord)) {
+                return 0.9;
+            }
+            int maxEdits = maxEdits(searchedWord);
+            if (maxEdits == 0 || Math.abs(word.length() - searchedWord.length()) > maxEdits) {
+                return 0;
+            }
+            int edits = editDistance(searchedWord, word);
+            return edits <= maxEdits ? 0.8 - 0.2 * edits : 0;
+        }
+    }
+
+    private record Query(String text, String wordStart, ProductMatchMode mode) {
+
+        Query(String text, ProductMatchMode mode) {
+            this(text, " " + text, mode);
+        }
+    }
+
+    private record Match(Long id, double score, int nameLength) {
+
+        static final Comparator<Match> BY_RELEVANCE = Comparator.comparingDouble(Match::score).reversed()
+            .thenComparingInt(Match::nameLength)
+            .thenComparing(Match::id);
+    }
+}
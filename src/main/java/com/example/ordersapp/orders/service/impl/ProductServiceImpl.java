@@ -1,73 +1,232 @@
 package com.example.ordersapp.orders.service.impl;
 
+import static java.util.stream.Collectors.toMap;
+
 import com.example.ordersapp.orders.model.Product;
+import com.example.ordersapp.orders.model.ProductStockShard;
+import com.example.ordersapp.orders.model.ProductStockShardId;
 import com.example.ordersapp.orders.model.dto.ProductDto;
 import com.example.ordersapp.orders.model.dto.ProductSearchParams;
 import com.example.ordersapp.orders.model.dto.mapper.ProductMapper;
+import com.example.ordersapp.orders.model.dto.projection.ProductStockRow;
+import com.example.ordersapp.orders.model.enums.ProductMatchMode;
 import com.example.ordersapp.orders.repository.ProductRepository;
+import com.example.ordersapp.orders.repository.ProductStockShardRepository;
 import com.example.ordersapp.orders.service.ProductService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ValidationException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import org.mapstruct.factory.Mappers;
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed(value = "ordersapp.product.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
 public class ProductServiceImpl implements ProductService {
 
+    public static final int MAX_STOCK_SHARDS = 64;
+    public static final String VERSION_MISMATCH_MSG = "Product %d has been modified since it was read";
+
     private final ProductRepository productRepository;
+    private final ProductStockShardRepository productStockShardRepository;
+    private final ProductCatalog productCatalog;
+    private final ProductSearchIndex productSearchIndex;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final EntityManager entityManager;
     private final ProductMapper productMapper = Mappers.getMapper(ProductMapper.class);
 
-    private static final ExampleMatcher matcher = ExampleMatcher.matching()
-        .withIgnoreCase()
-        .withIgnoreNullValues();
-
     @Override
     public ProductDto createProduct(ProductDto productDto) {
         Product product = productMapper.toEntity(productDto);
 
-        return productMapper.toDto(productRepository.save(product));
+        Product savedProduct = productRepository.save(product);
+        productSearchIndex.index(savedProduct);
+        return productMapper.toDto(savedProduct);
     }
 
     @Override
     public Optional<ProductDto> getProductById(Long id) {
-        return productRepository.findById(id)
-            .map(productMapper::toDto);
+        return Optional.ofNullable(productCatalog.findById(id))
+            .map(catalogRow -> productMapper.toDto(catalogRow, Optional.ofNullable(productCatalog.findStock(id))
+                .map(ProductStockRow::stockQuantity)
+                .orElse(null)));
+    }
+
+    @Override
+    public Optional<Integer> getProductVersion(Long id) {
+        return Optional.ofNullable(productCatalog.findStock(id)).map(ProductStockRow::version);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ProductDto> getProducts(Pageable pageable, ProductSearchParams searchParams) {
-        Example<Product> productExample = Example.of(productMapper.searchParamsToEntity(searchParams), matcher);
-        return productRepository.findAll(productExample, pageable)
-            .map(productMapper::toDto);
+        if (searchParams == null || searchParams.name() == null || searchParams.name().isBlank()) {
+            return productRepository.findAll(pageable).map(productMapper::toDto);
+        }
+
+        List<Long> matchingIds = productSearchIndex.search(searchParams.name(), searchParams.match());
+        if (matchingIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        if (searchParams.match() == ProductMatchMode.EXACT) {
+            return productRepository.findAllByIdIn(matchingIds, pageable).map(productMapper::toDto);
+        }
+
+        // Ranked matches are paged in relevance order, only the products of the requested page are loaded
+        int fromIndex = (int) Math.min(pageable.getOffset(), matchingIds.size());
+        List<Long> pageIds = matchingIds.subList(fromIndex,
+            Math.min(fromIndex + pageable.getPageSize(), matchingIds.size()));
+        Map<Long, Product> products = productRepository.findAllById(pageIds).stream()
+            .collect(toMap(Product::getId, Function.identity()));
+        List<ProductDto> content = pageIds.stream()
+            .map(products::get)
+            .filter(Objects::nonNull)
+            .map(productMapper::toDto)
+            .toList();
+        return new PageImpl<>(content, pageable, matchingIds.size());
     }
 
     @Override
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        productCatalog.evict(id);
+        productSearchIndex.remove(id);
     }
 
     @Override
-    public Optional<ProductDto> updateProduct(Long id, ProductDto updatedProduct) {
+    public Optional<ProductDto> updateProduct(Long id, ProductDto updatedProduct, Integer expectedVersion) {
+        if (!isCurrentVersion(id, expectedVersion)) {
+            return Optional.empty();
+        }
         return productRepository.findById(id)
             .map(existingProduct -> {
+                checkVersion(id, expectedVersion, existingProduct.getVersion());
                 Product product = productMapper.toEntity(updatedProduct);
-                return productMapper.toDto(productRepository.save(product));
+                // Identity and version come from the path and the persisted row, never from the body
+                product.setId(id);
+                product.setVersion(existingProduct.getVersion());
+                productCatalog.evict(id);
+                // Flushed so an incomplete product fails validation before it reaches the search index
+                Product savedProduct = productRepository.saveAndFlush(product);
+                productSearchIndex.index(savedProduct);
+                return productMapper.toDto(savedProduct, redistributeShardedStock(savedProduct));
             });
     }
 
     @Override
-    public Optional<ProductDto> updateProductPartially(Long id, ProductDto patch) {
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<ProductDto> updateProductPartially(Long id, ProductDto patch, Integer expectedVersion) {
+        return optimisticLockRetry.execute("updateProductPartially", () -> patchProduct(id, patch, expectedVersion));
+    }
+
+    private Optional<ProductDto> patchProduct(Long id, ProductDto patch, Integer expectedVersion) {
+        if (!isCurrentVersion(id, expectedVersion)) {
+            return Optional.empty();
+        }
         return productRepository.findById(id)
             .map(existingProduct -> {
+                checkVersion(id, expectedVersion, existingProduct.getVersion());
                 Product updatedProduct = productMapper.partialUpdate(patch, existingProduct);
-                return productMapper.toDto(productRepository.save(updatedProduct));
+                productCatalog.evict(id);
+                Product savedProduct = productRepository.save(updatedProduct);
+                productSearchIndex.index(savedProduct);
+                return patch.stockQuantity() == null
+                    ? productMapper.toDto(savedProduct)
+                    : productMapper.toDto(savedProduct, redistributeShardedStock(savedProduct));
             });
     }
+
+    @Override
+    public Optional<ProductDto> updateStockShards(Long id, int shards) {
+        if (shards < 1 || shards > MAX_STOCK_SHARDS) {
+            throw new ValidationException("Stock shards must be between 1 and " + MAX_STOCK_SHARDS);
+        }
+
+        return productRepository.findLockedById(id)
+            .map(product -> {
+                List<ProductStockShard> currentShards = productStockShardRepository
+                    .findAllByIdProductIdOrderByIdShardNo(id);
+                int totalStock = product.getStockQuantity() + currentShards.stream()
+                    .mapToInt(ProductStockShard::getQuantity)
+                    .sum();
+                distributeStock(product, totalStock, shards, currentShards);
+                productCatalog.evict(id);
+                return productMapper.toDto(product, totalStock);
+            });
+    }
+
+    /**
+     * Compares the expected version with a version-only read, so a stale update fails before the product is loaded
+     *
+     * @return {@code false} if the product does not exist
+     */
+    private boolean isCurrentVersion(Long id, Integer expectedVersion) {
+        if (expectedVersion == null) {
+            return true;
+        }
+        Optional<Integer> currentVersion = productRepository.findVersionById(id);
+        currentVersion.ifPresent(version -> checkVersion(id, expectedVersion, version));
+        return currentVersion.isPresent();
+    }
+
+    private static void checkVersion(Long id, Integer expectedVersion, Integer currentVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, VERSION_MISMATCH_MSG.formatted(id));
+        }
+    }
+
+    /**
+     * A stock quantity written to a sharded product is the new total, spread over its existing shards.
+     *
+     * @return total stock quantity of the product
+     */
+    private int redistributeShardedStock(Product product) {
+        List<ProductStockShard> currentShards = productStockShardRepository
+            .findAllByIdProductIdOrderByIdShardNo(product.getId());
+        int totalStock = product.getStockQuantity();
+        if (!currentShards.isEmpty()) {
+            distributeStock(product, totalStock, currentShards.size(), currentShards);
+        }
+        return totalStock;
+    }
+
+    /**
+     * Moves the whole stock of the product into the given number of shards, a single shard means the stock is kept
+     * on the product row. Existing shards are updated in place, since Hibernate inserts before it deletes.
+     */
+    private void distributeStock(Product product, int totalStock, int shards, List<ProductStockShard> currentShards) {
+        productRepository.invalidateCachedProduct(product.getId());
+        if (shards == 1) {
+            productStockShardRepository.deleteAll(currentShards);
+            product.setStockQuantity(totalStock);
+            return;
+        }
+
+        product.setStockQuantity(0);
+        for (int shardNo = 0; shardNo < Math.max(shards, currentShards.size()); shardNo++) {
+            int quantity = totalStock / shards + (shardNo < totalStock % shards ? 1 : 0);
+            if (shardNo >= shards) {
+                productStockShardRepository.delete(currentShards.get(shardNo));
+            } else if (shardNo < currentShards.size()) {
+                currentShards.get(shardNo).setQuantity(quantity);
+            } else {
+                entityManager.persist(
+                    new ProductStockShard(new ProductStockShardId(product.getId(), shardNo), quantity));
+            }
+        }
+    }
 }
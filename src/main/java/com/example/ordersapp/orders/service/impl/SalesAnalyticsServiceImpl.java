@@ -0,0 +1,82 @@
+package com.example.ordersapp.orders.service.impl;
+
+import com.example.ordersapp.orders.model.dto.DailySalesDto;
+import com.example.ordersapp.orders.model.dto.PaymentMethodSalesDto;
+import com.example.ordersapp.orders.model.dto.ProductSalesDto;
+import com.example.ordersapp.orders.repository.SalesRollupRepository;
+import com.example.ordersapp.orders.service.SalesAnalyticsService;
+import jakarta.validation.ValidationException;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reports read nothing but the rollups, so their cost depends on the number of days, products and payment methods in
+ * the range and not on the number of orders.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalesAnalyticsServiceImpl implements SalesAnalyticsService {
+
+    public static final int MAX_TOP_PRODUCTS = 1000;
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DailySalesDto> getDailySales(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return salesRollupRepository.findDailySales(from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductSalesDto> getTopProductSales(LocalDate from, LocalDate to, int limit) {
+        validateRange(from, to);
+        if (limit < 1 || limit > MAX_TOP_PRODUCTS) {
+            throw new ValidationException("Limit must be between 1 and %d".formatted(MAX_TOP_PRODUCTS));
+        }
+        return salesRollupRepository.findTopProductSales(from, to, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PaymentMethodSalesDto> getPaymentMethodSales(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return salesRollupRepository.findPaymentMethodSales(from, to);
+    }
+
+    @Override
+    public void rebuildRollups(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        for (LocalDate salesDate = from; !salesDate.isAfter(to); salesDate = salesDate.plusDays(1)) {
+            LocalDate day = salesDate;
+            transactionTemplate.executeWithoutResult(status -> rebuild(day));
+        }
+        log.info("Sales rollups rebuilt from {} to {}", from, to);
+    }
+
+    /**
+     * The rows of the day are deleted before the orders are read. Orders committing meanwhile wait for the deleted
+     * rows and add to the rebuilt ones afterwards, orders committed before are part of what is read.
+     */
+    private void rebuild(LocalDate salesDate) {
+        salesRollupRepository.deleteAllBySalesDate(salesDate);
+        salesRollupRepository.addDailySales(salesRollupRepository.aggregateDailySales(salesDate));
+        salesRollupRepository.addDailyPaymentMethodSales(
+            salesRollupRepository.aggregateDailyPaymentMethodSales(salesDate));
+        salesRollupRepository.addDailyProductSales(salesRollupRepository.aggregateDailyProductSales(salesDate));
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new ValidationException("Date range must have a start not after its end");
+        }
+    }
+}
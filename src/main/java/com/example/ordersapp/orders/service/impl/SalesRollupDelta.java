@@ -0,0 +1,100 @@
+package com.example.ordersapp.orders.service.impl;
+
+import static java.util.stream.Collectors.groupingBy;
+
+import com.example.ordersapp.orders.model.dto.DailySalesDto;
+import com.example.ordersapp.orders.model.dto.SalesFigures;
+import com.example.ordersapp.orders.model.dto.projection.DailyPaymentMethodSalesRow;
+import com.example.ordersapp.orders.model.dto.projection.DailyProductSalesRow;
+import com.example.ordersapp.orders.model.enums.PaymentMethod;
+import com.example.ordersapp.orders.model.event.OrderSnapshot;
+import com.example.ordersapp.orders.model.event.OrderSnapshot.OrderLine;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+
+/**
+ * Net change of the sales rollups caused by a number of order writes. Buckets are kept sorted, so every transaction
+ * locks the rollup rows it changes in the same order.
+ */
+class SalesRollupDelta {
+
+    private final SortedMap<LocalDate, SalesFigures> daily = new TreeMap<>();
+    private final SortedMap<ProductKey, SalesFigures> byProduct = new TreeMap<>(Comparator
+        .comparing(ProductKey::salesDate)
+        .thenComparing(ProductKey::productId));
+    private final SortedMap<PaymentMethodKey, SalesFigures> byPaymentMethod = new TreeMap<>(Comparator
+        .comparing(PaymentMethodKey::salesDate)
+        .thenComparing(PaymentMethodKey::paymentMethod));
+
+    void add(OrderSnapshot order) {
+        apply(order, false);
+    }
+
+    void subtract(OrderSnapshot order) {
+        apply(order, true);
+    }
+
+    List<DailySalesDto> dailySales() {
+        return toRows(daily, DailySalesDto::new);
+    }
+
+    List<DailyProductSalesRow> dailyProductSales() {
+        return toRows(byProduct, (key, sales) -> new DailyProductSalesRow(key.salesDate(), key.productId(), sales));
+    }
+
+    List<DailyPaymentMethodSalesRow> dailyPaymentMethodSales() {
+        return toRows(byPaymentMethod, (key, sales) ->
+            new DailyPaymentMethodSalesRow(key.salesDate(), key.paymentMethod(), sales));
+    }
+
+    private void apply(OrderSnapshot order, boolean negate) {
+        LocalDate salesDate = order.orderDate().toLocalDate();
+        SalesFigures orderSales = SalesFigures.of(order.status(), order.totalItems(), order.totalPrice());
+        merge(daily, salesDate, orderSales, negate);
+        merge(byPaymentMethod, new PaymentMethodKey(salesDate, order.paymentMethod()), orderSales, negate);
+
+        // A product ordered on several lines still counts as one order of that product
+        order.orderLines().stream()
+            .collect(groupingBy(OrderLine::productId))
+            .forEach((productId, lines) -> {
+                long items = lines.stream().mapToLong(OrderLine::quantity).sum();
+                BigDecimal revenue = lines.stream()
+                    .map(line -> line.unitPrice().multiply(BigDecimal.valueOf(line.quantity())))
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+                merge(byProduct, new ProductKey(salesDate, productId), SalesFigures.of(order.status(), items, revenue),
+                    negate);
+            });
+    }
+
+    private static <K> void merge(Map<K, SalesFigures> buckets, K key, SalesFigures sales, boolean negate) {
+        if (sales.isZero()) {
+            return;
+        }
+        SalesFigures merged = buckets.getOrDefault(key, SalesFigures.ZERO).add(negate ? sales.negate() : sales);
+        if (merged.isZero()) {
+            buckets.remove(key);
+        } else {
+            buckets.put(key, merged);
+        }
+    }
+
+    private static <K, R> List<R> toRows(Map<K, SalesFigures> buckets, BiFunction<K, SalesFigures, R> toRow) {
+        return buckets.entrySet().stream()
+            .map(bucket -> toRow.apply(bucket.getKey(), bucket.getValue()))
+            .toList();
+    }
+
+    private record ProductKey(LocalDate salesDate, Long productId) {
+
+    }
+
+    private record PaymentMethodKey(LocalDate salesDate, PaymentMethod paymentMethod) {
+
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.ordersapp.orders.service.impl;
+
+import com.example.ordersapp.orders.model.event.OrderCreatedEvent;
+import com.example.ordersapp.orders.model.event.OrderDeletedEvent;
+import com.example.ordersapp.orders.model.event.OrderUpdatedEvent;
+import com.example.ordersapp.orders.repository.SalesRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the sales rollups in step with order writes, in the same transaction. Changes are collected for the whole
+ * transaction and written just before it commits, so a batch of orders adds to every rollup row once and the rows of
+ * the current day, which every new order touches, stay locked only while the transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class SalesRollupUpdater {
+
+    private final SalesRollupRepository salesRollupRepository;
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        currentDelta().add(event.order());
+    }
+
+    @EventListener
+    public void onOrderUpdated(OrderUpdatedEvent event) {
+        SalesRollupDelta delta = currentDelta();
+        delta.subtract(event.previous());
+        delta.add(event.order());
+    }
+
+    @EventListener
+    public void onOrderDeleted(OrderDeletedEvent event) {
+        currentDelta().subtract(event.order());
+    }
+
+    private SalesRollupDelta currentDelta() {
+        SalesRollupDelta delta = (SalesRollupDelta) TransactionSynchronizationManager.getResource(this);
+        if (delta != null) {
+            return delta;
+        }
+
+        SalesRollupDelta newDelta = new SalesRollupDelta();
+        TransactionSynchronizationManager.bindResource(this, newDelta);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                write(newDelta);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(SalesRollupUpdater.this);
+            }
+        });
+        return newDelta;
+    }
+
+    private void write(SalesRollupDelta delta) {
+        salesRollupRepository.addDailySales(delta.dailySales());
+        salesRollupRepository.addDailyPaymentMethodSales(delta.dailyPaymentMethodSales());
+        salesRollupRepository.addDailyProductSales(delta.dailyProductSales());
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.ordersapp.orders.service.impl;
+
+import static java.util.stream.Collectors.toMap;
+
+import com.example.ordersapp.orders.model.ProductStockShard;
+import com.example.ordersapp.orders.model.ProductStockShardId;
+import com.example.ordersapp.orders.model.dto.projection.StockShardCount;
+import com.example.ordersapp.orders.repository.ProductRepository;
+import com.example.ordersapp.orders.repository.ProductStockShardRepository;
+import com.example.ordersapp.orders.service.StockReservationService;
+import jakarta.validation.ValidationException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SequencedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Deducts stock with conditional updates, so stock can never go negative and concurrent orders do not need to retry
+ * on optimistic lock failures. Products are always updated in ascending id order, so two orders sharing products lock
+ * their rows in the same order and cannot deadlock. A reservation is all-or-nothing: if one product cannot be reserved,
+ * the stock already taken by the same call is put back where it was taken from before the exception is thrown.
+ * <p>
+ * Stock of sharded products is taken from a single shard picked at random, skipping shards locked by concurrent
+ * orders and falling back to its siblings. Only when no single shard covers the quantity are all shards locked, in
+ * shard order, and drained one after another. Shards are only ever read with a lock and changed through the managed
+ * entity, so the persistence context never holds a stale shard quantity.
+ * <p>
+ * Shards are counted upfront without a lock, which only picks where to look first. Whether a product is sharded is
+ * decided by the rows found under lock: resharding locks the product row and all of its shards, so a product row update
+ * or a shard lock waits for it to commit and then sees its result. A product resharded meanwhile is reserved from
+ * where its stock is now.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY, noRollbackFor = {ValidationException.class,
+    ResponseStatusException.class})
+public class StockReservationServiceImpl implements StockReservationService {
+
+    public static final String INSUFFICIENT_STOCK_MSG = "Insufficient stock for product id: %d";
+    public static final String INVALID_QUANTITY_MSG = "Quantity must be at least 1 for product id: %d";
+
+    private final ProductRepository productRepository;
+    private final ProductStockShardRepository productStockShardRepository;
+
+    @Override
+    public void reserve(Map<Long, Integer> quantitiesByProductId) {
+        // A quantity below one would pass the stock check of the conditional update and add stock instead
+        quantitiesByProductId.forEach((productId, quantity) -> {
+            if (quantity < 1) {
+                throw new ValidationException(INVALID_QUANTITY_MSG.formatted(productId));
+            }
+        });
+        Map<Long, Integer> shardsByProductId = countShards(quantitiesByProductId.keySet());
+        SequencedMap<Long, List<TakenStock>> reserved = new LinkedHashMap<>();
+
+        new TreeMap<>(quantitiesByProductId).forEach((productId, quantity) -> {
+            Integer shards = shardsByProductId.get(productId);
+            List<TakenStock> taken = shards == null
+                ? reserveFromProduct(productId, quantity)
+                : reserveFromShards(productId, shards, quantity);
+
+            if (taken.isEmpty()) {
+                // Shards already locked by this call are released into, so releasing never waits for other orders
+                reserved.reversed().forEach(this::putBack);
+                throw productRepository.existsById(productId)
+                    ? insufficientStock(productId)
+                    : new ValidationException("Invalid product id: " + productId);
+            }
+            reserved.put(productId, taken);
+        });
+    }
+
+    @Override
+    public void release(Map<Long, Integer> quantitiesByProductId) {
+        Map<Long, Integer> shardsByProductId = countShards(quantitiesByProductId.keySet());
+        new TreeMap<>(quantitiesByProductId).forEach((productId, quantity) -> {
+            Integer shards = shardsByProductId.get(productId);
+            Optional<ProductStockShard> shard = shards == null ? Optional.empty() : lockShardToRelease(productId, shards);
+            if (shard.isPresent()) {
+                shard.get().setQuantity(shard.get().getQuantity() + quantity);
+            } else {
+                // Stock on the product row counts towards a sharded product as well, resharding moves it to the shards
+                productRepository.addToStock(productId, quantity);
+            }
+        });
+    }
+
+    /**
+     * @return a random shard, the first one if it no longer exists, empty if the product is no longer sharded
+     */
+    private Optional<ProductStockShard> lockShardToRelease(Long productId, int shards) {
+        productRepository.invalidateCachedProduct(productId);
+        return productStockShardRepository.findLockedById(new ProductStockShardId(productId, randomShard(shards)))
+            .or(() -> productStockShardRepository.findAllByIdProductIdOrderByIdShardNo(productId).stream().findFirst());
+    }
+
+    /**
+     * @return stock taken, empty if the product does not have enough
+     */
+    private List<TakenStock> reserveFromProduct(Long productId, int quantity) {
+        if (productRepository.subtractFromStock(productId, quantity) > 0) {
+            return List.of(new TakenStock(null, quantity));
+        }
+        // The failed update waited for a concurrent resharding, which may have moved the stock to shards
+        List<ProductStockShard> shards = productStockShardRepository.findAllByIdProductIdOrderByIdShardNo(productId);
+        if (shards.isEmpty()) {
+            return List.of();
+        }
+        productRepository.invalidateCachedProduct(productId);
+        return drainShards(shards, quantity);
+    }
+
+    /**
+     * @return stock taken from one or more shards, empty if all shards together do not cover the quantity
+     */
+    private List<TakenStock> reserveFromShards(Long productId, int shards, int quantity) {
+        productRepository.invalidateCachedProduct(productId);
+        int startShard = randomShard(shards);
+        Optional<ProductStockShard> shard = productStockShardRepository
+            .findFirstUnlockedShard(productId, startShard, quantity)
+            .or(() -> productStockShardRepository.findFirstUnlockedShard(productId, 0, quantity));
+        if (shard.isPresent()) {
+            shard.get().setQuantity(shard.get().getQuantity() - quantity);
+            return List.of(new TakenStock(shard.get(), quantity));
+        }
+
+        List<ProductStockShard> lockedShards = productStockShardRepository
+            .findAllByIdProductIdOrderByIdShardNo(productId);
+        if (lockedShards.isEmpty()) {
+            // Unsharded since the shards were counted, the stock is back on the product row
+            return productRepository.subtractFromStock(productId, quantity) > 0
+                ? List.of(new TakenStock(null, quantity))
+                : List.of();
+        }
+        return drainShards(lockedShards, quantity);
+    }
+
+    private static List<TakenStock> drainShards(List<ProductStockShard> shards, int quantity) {
+        if (shards.stream().mapToInt(ProductStockShard::getQuantity).sum() < quantity) {
+            return List.of();
+        }
+
+        List<TakenStock> taken = new ArrayList<>();
+        int remaining = quantity;
+        for (ProductStockShard shard : shards) {
+            int quantityTaken = Math.min(remaining, shard.getQuantity());
+            if (quantityTaken > 0) {
+                shard.setQuantity(shard.getQuantity() - quantityTaken);
+                taken.add(new TakenStock(shard, quantityTaken));
+                remaining -= quantityTaken;
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Returns the stock to the product row and the shards it was taken from, the shards are still locked by this call
+     */
+    private void putBack(Long productId, List<TakenStock> taken) {
+        taken.forEach(takenStock -> {
+            if (takenStock.shard() == null) {
+                productRepository.addToStock(productId, takenStock.quantity());
+            } else {
+                takenStock.shard().setQuantity(takenStock.shard().getQuantity() + takenStock.quantity());
+            }
+        });
+    }
+
+    private Map<Long, Integer> countShards(Collection<Long> productIds) {
+        return productStockShardRepository.countShardsByProductIds(productIds).stream()
+            .collect(toMap(StockShardCount::productId, shardCount -> (int) shardCount.shards()));
+    }
+
+    private static int randomShard(int shards) {
+        return ThreadLocalRandom.current().nextInt(shards);
+    }
+
+    private static ResponseStatusException insufficientStock(Long productId) {
+        return new ResponseStatusException(HttpStatus.CONFLICT, INSUFFICIENT_STOCK_MSG.formatted(productId));
+    }
+
+    /**
+     * @param shard    shard the quantity was taken from, {@code null} for the product row
+     * @param quantity quantity taken
+     */
+    private record TakenStock(ProductStockShard shard, int quantity) {
+
+    }
+}
@@ -2,10 +2,16 @@ package com.example.ordersapp.orders.validation;
 
 import com.example.ordersapp.orders.model.Order;
 import com.example.ordersapp.orders.model.enums.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
 import jakarta.validation.ValidationException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class OrderStatusTransitionValidator {
 
+    private static final Map<Transition, Counter> REJECTED_TRANSITIONS = new ConcurrentHashMap<>();
+
     private OrderStatusTransitionValidator() {
     }
 
@@ -25,8 +31,25 @@ public class OrderStatusTransitionValidator {
         };
 
         if (!valid) {
+            REJECTED_TRANSITIONS.computeIfAbsent(new Transition(currentStatus, newStatus),
+                    OrderStatusTransitionValidator::rejectedCounter)
+                .increment();
             throw new ValidationException("Invalid order status change %s -> %s"
                 .formatted(currentStatus, newStatus));
         }
     }
+
+    private static Counter rejectedCounter(Transition transition) {
+        // Counted in the global registry, which Spring Boot adds its own registry to
+        return Counter.builder("ordersapp.order.status.transitions.rejected")
+            .description("Order status changes rejected as invalid")
+            .tag("from", transition.from().name())
+            // A replacement without a status is rejected as a change to null
+            .tag("to", String.valueOf(transition.to()))
+            .register(Metrics.globalRegistry);
+    }
+
+    private record Transition(OrderStatus from, OrderStatus to) {
+
+    }
 }
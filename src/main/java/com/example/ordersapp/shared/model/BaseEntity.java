@@ -12,7 +12,6 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.SourceType;
 import org.hibernate.annotations.UpdateTimestamp;
 
 @MappedSuperclass
@@ -22,11 +21,11 @@ import org.hibernate.annotations.UpdateTimestamp;
 public abstract class BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     @Column(name = "id", nullable = false)
     protected Long id;
 
-    @CreationTimestamp(source = SourceType.DB)
+    @CreationTimestamp
     @Column(name = "created_at", updatable = false, nullable = false)
     @ColumnDefault("CURRENT_TIMESTAMP")
     protected Instant createdAt;
@@ -0,0 +1,44 @@
+-- liquibase formatted sql
+
+-- changeset Marcin:1760782800000-1
+CREATE TABLE customers_seq
+(
+    next_val BIGINT NULL
+);
+
+-- changeset Marcin:1760782800000-2
+CREATE TABLE orders_seq
+(
+    next_val BIGINT NULL
+);
+
+-- changeset Marcin:1760782800000-3
+CREATE TABLE order_items_seq
+(
+    next_val BIGINT NULL
+);
+
+-- changeset Marcin:1760782800000-4
+CREATE TABLE products_seq
+(
+    next_val BIGINT NULL
+);
+
+-- Hibernate pooled optimizer treats the stored value as the upper bound of the next block of 50 ids,
+-- so every sequence starts one full block above the highest id already present.
+-- changeset Marcin:1760782800000-5
+INSERT INTO customers_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50
+FROM customers;
+
+INSERT INTO orders_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50
+FROM orders;
+
+INSERT INTO order_items_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50
+FROM order_items;
+
+INSERT INTO products_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50
+FROM products;
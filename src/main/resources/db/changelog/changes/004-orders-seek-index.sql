@@ -0,0 +1,4 @@
+-- liquibase formatted sql
+
+-- changeset Marcin:1760869200000-1
+CREATE INDEX idx_orders_order_date_id ON orders (order_date, id);
@@ -0,0 +1,13 @@
+-- liquibase formatted sql
+
+-- changeset Marcin:1760955600000-1
+CREATE INDEX idx_orders_customer_status_order_date ON orders (customer_id, status, order_date);
+
+-- changeset Marcin:1760955600000-2
+CREATE INDEX idx_orders_status_order_date ON orders (status, order_date);
+
+-- changeset Marcin:1760955600000-3
+CREATE INDEX idx_order_items_order_product ON order_items (order_id, product_id);
+
+-- changeset Marcin:1760955600000-4
+CREATE INDEX idx_orders_customer_order_date_id ON orders (customer_id, order_date, id);
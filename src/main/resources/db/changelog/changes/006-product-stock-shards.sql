@@ -0,0 +1,14 @@
+-- liquibase formatted sql
+
+-- changeset Marcin:1761042000000-1
+CREATE TABLE product_stock_shards
+(
+    product_id BIGINT NOT NULL,
+    shard_no   INT    NOT NULL,
+    quantity   INT    NOT NULL,
+    CONSTRAINT pk_product_stock_shards PRIMARY KEY (product_id, shard_no)
+);
+
+-- changeset Marcin:1761042000000-2
+ALTER TABLE product_stock_shards
+    ADD CONSTRAINT FK_PRODUCT_STOCK_SHARDS_ON_PRODUCT FOREIGN KEY (product_id) REFERENCES products (id) ON DELETE CASCADE;
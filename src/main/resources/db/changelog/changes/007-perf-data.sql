@@ -0,0 +1,71 @@
+-- liquibase formatted sql
+
+-- Deterministic load test data set, sized by the perf* Liquibase parameters from application-perf.yaml.
+-- Pseudo-random columns are derived from the row number with multiplicative hashing, so every run generates exactly
+-- the same rows. Ids are assigned explicitly after the ones already present and the pooled id sequences are moved
+-- past them at the end.
+
+-- changeset Marcin:1761128400000-1
+SET SESSION cte_max_recursion_depth = 100000000;
+SET @customer_base = (SELECT COALESCE(MAX(id), 0) FROM customers);
+INSERT INTO customers (id, first_name, last_name, email, address, city, postal_code, country, phone)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < ${perfCustomers})
+SELECT @customer_base + n,
+       CONCAT('Customer', n),
+       CONCAT('Loadtest', (n * 7919) % 100000),
+       CONCAT('customer', n, '@example.com'),
+       CONCAT('Ul. Testowa ', n % 200 + 1),
+       ELT(n % 8 + 1, 'Warszawa', 'Kraków', 'Wrocław', 'Poznań', 'Gdańsk', 'Łódź', 'Lublin', 'Katowice'),
+       CONCAT(LPAD(n % 100, 2, '0'), '-', LPAD((n * 31) % 1000, 3, '0')),
+       'Polska',
+       LPAD((n * 104729) % 1000000000, 9, '0')
+FROM seq;
+
+-- changeset Marcin:1761128400000-2
+SET SESSION cte_max_recursion_depth = 100000000;
+SET @product_base = (SELECT COALESCE(MAX(id), 0) FROM products);
+INSERT INTO products (id, name, `description`, price, stock_quantity)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < ${perfProducts})
+SELECT @product_base + n,
+       CONCAT('Product ', n),
+       CONCAT('Load test product ', n),
+       (100 + (n * 7919) % 99900) / 100,
+       1000000
+FROM seq;
+
+-- changeset Marcin:1761128400000-3
+SET SESSION cte_max_recursion_depth = 100000000;
+SET @customer_max = (SELECT MAX(id) FROM customers);
+SET @order_base = (SELECT COALESCE(MAX(id), 0) FROM orders);
+INSERT INTO orders (id, customer_id, status, payment_method, order_date)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < ${perfOrders})
+SELECT @order_base + n,
+       1 + (n * 7919) % @customer_max,
+       ELT(1 + (n * 31) % 5, 'CREATED', 'ACCEPTED', 'SENT', 'DELIVERED', 'CANCELLED'),
+       ELT(1 + (n * 17) % 5, 'CARD', 'BANK_TRANSFER', 'PAYPAL', 'CASH', 'BLIK'),
+       TIMESTAMP '2023-01-01 00:00:00' + INTERVAL ((n * 104729) % 1051200) MINUTE
+FROM seq;
+
+-- Every order gets 1 to 5 lines, priced at the current product price
+-- changeset Marcin:1761128400000-4
+SET SESSION cte_max_recursion_depth = 100000000;
+SET @product_max = (SELECT MAX(id) FROM products);
+SET @order_base = (SELECT MAX(id) FROM orders) - ${perfOrders};
+SET @item_base = (SELECT COALESCE(MAX(id), 0) FROM order_items);
+INSERT INTO order_items (id, order_id, product_id, quantity, unit_price)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < ${perfOrders}),
+               item_lines (line) AS (SELECT 1 UNION ALL SELECT line + 1 FROM item_lines WHERE line < 5)
+SELECT @item_base + (seq.n - 1) * 5 + item_lines.line,
+       @order_base + seq.n,
+       p.id,
+       1 + (seq.n + item_lines.line) % 3,
+       p.price
+FROM seq
+         JOIN item_lines ON item_lines.line <= 1 + seq.n % 5
+         JOIN products p ON p.id = 1 + ((seq.n * 5 + item_lines.line) * 7919) % @product_max;
+
+-- changeset Marcin:1761128400000-5
+UPDATE customers_seq SET next_val = (SELECT MAX(id) + 50 FROM customers);
+UPDATE products_seq SET next_val = (SELECT MAX(id) + 50 FROM products);
+UPDATE orders_seq SET next_val = (SELECT MAX(id) + 50 FROM orders);
+UPDATE order_items_seq SET next_val = (SELECT MAX(id) + 50 FROM order_items);
@@ -0,0 +1,10 @@
+-- liquibase formatted sql
+
+-- Natural key of products imported from catalog files, optional for products created through the API
+-- changeset Marcin:1761214800000-1
+ALTER TABLE products
+    ADD sku VARCHAR(64) NULL;
+
+-- changeset Marcin:1761214800000-2
+ALTER TABLE products
+    ADD CONSTRAINT uc_products_sku UNIQUE (sku);
@@ -0,0 +1,30 @@
+-- liquibase formatted sql
+
+-- changeset Marcin:1761301200000-1
+ALTER TABLE orders
+    ADD total_items INT DEFAULT 0 NOT NULL,
+    ADD total_price DECIMAL(12, 2) DEFAULT 0 NOT NULL;
+
+-- changeset Marcin:1761301200000-2
+UPDATE orders o
+    JOIN (SELECT order_id, SUM(quantity) AS total_items, SUM(quantity * unit_price) AS total_price
+          FROM order_items
+          GROUP BY order_id) t ON t.order_id = o.id
+SET o.total_items = t.total_items,
+    o.total_price = t.total_price;
+
+-- Perf data generated after the backfill above still needs its totals
+-- changeset Marcin:1761301200000-3 context:perf
+UPDATE orders o
+    JOIN (SELECT order_id, SUM(quantity) AS total_items, SUM(quantity * unit_price) AS total_price
+          FROM order_items
+          GROUP BY order_id) t ON t.order_id = o.id
+SET o.total_items = t.total_items,
+    o.total_price = t.total_price
+WHERE o.total_items = 0;
+
+-- changeset Marcin:1761301200000-4
+CREATE INDEX idx_orders_total_price_id ON orders (total_price, id);
+
+-- changeset Marcin:1761301200000-5
+CREATE INDEX idx_orders_total_items_id ON orders (total_items, id);
@@ -0,0 +1,124 @@
+-- liquibase formatted sql
+
+-- Sales rollups per day, kept up to date by the application on every order write. Booked figures count every order
+-- except cancelled ones, realized figures only delivered orders.
+
+-- changeset Marcin:1761387600000-1
+CREATE TABLE daily_sales
+(
+    sales_date            DATE                     NOT NULL,
+    orders_count          BIGINT         DEFAULT 0 NOT NULL,
+    items_count           BIGINT         DEFAULT 0 NOT NULL,
+    revenue               DECIMAL(15, 2) DEFAULT 0 NOT NULL,
+    realized_orders_count BIGINT         DEFAULT 0 NOT NULL,
+    realized_items_count  BIGINT         DEFAULT 0 NOT NULL,
+    realized_revenue      DECIMAL(15, 2) DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_daily_sales PRIMARY KEY (sales_date)
+);
+
+-- changeset Marcin:1761387600000-2
+CREATE TABLE daily_product_sales
+(
+    sales_date            DATE                     NOT NULL,
+    product_id            BIGINT                   NOT NULL,
+    orders_count          BIGINT         DEFAULT 0 NOT NULL,
+    items_count           BIGINT         DEFAULT 0 NOT NULL,
+    revenue               DECIMAL(15, 2) DEFAULT 0 NOT NULL,
+    realized_orders_count BIGINT         DEFAULT 0 NOT NULL,
+    realized_items_count  BIGINT         DEFAULT 0 NOT NULL,
+    realized_revenue      DECIMAL(15, 2) DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_daily_product_sales PRIMARY KEY (sales_date, product_id)
+);
+
+-- changeset Marcin:1761387600000-3
+CREATE TABLE daily_payment_method_sales
+(
+    sales_date            DATE                     NOT NULL,
+    payment_method        VARCHAR(32)              NOT NULL,
+    orders_count          BIGINT         DEFAULT 0 NOT NULL,
+    items_count           BIGINT         DEFAULT 0 NOT NULL,
+    revenue               DECIMAL(15, 2) DEFAULT 0 NOT NULL,
+    realized_orders_count BIGINT         DEFAULT 0 NOT NULL,
+    realized_items_count  BIGINT         DEFAULT 0 NOT NULL,
+    realized_revenue      DECIMAL(15, 2) DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_daily_payment_method_sales PRIMARY KEY (sales_date, payment_method)
+);
+
+-- changeset Marcin:1761387600000-4
+INSERT INTO daily_sales
+SELECT DATE(o.order_date),
+       SUM(o.status <> 'CANCELLED'),
+       SUM(IF(o.status <> 'CANCELLED', o.total_items, 0)),
+       SUM(IF(o.status <> 'CANCELLED', o.total_price, 0)),
+       SUM(o.status = 'DELIVERED'),
+       SUM(IF(o.status = 'DELIVERED', o.total_items, 0)),
+       SUM(IF(o.status = 'DELIVERED', o.total_price, 0))
+FROM orders o
+GROUP BY DATE(o.order_date);
+
+INSERT INTO daily_payment_method_sales
+SELECT DATE(o.order_date),
+       o.payment_method,
+       SUM(o.status <> 'CANCELLED'),
+       SUM(IF(o.status <> 'CANCELLED', o.total_items, 0)),
+       SUM(IF(o.status <> 'CANCELLED', o.total_price, 0)),
+       SUM(o.status = 'DELIVERED'),
+       SUM(IF(o.status = 'DELIVERED', o.total_items, 0)),
+       SUM(IF(o.status = 'DELIVERED', o.total_price, 0))
+FROM orders o
+GROUP BY DATE(o.order_date), o.payment_method;
+
+INSERT INTO daily_product_sales
+SELECT DATE(o.order_date),
+       i.product_id,
+       COUNT(DISTINCT IF(o.status <> 'CANCELLED', o.id, NULL)),
+       SUM(IF(o.status <> 'CANCELLED', i.quantity, 0)),
+       SUM(IF(o.status <> 'CANCELLED', i.quantity * i.unit_price, 0)),
+       COUNT(DISTINCT IF(o.status = 'DELIVERED', o.id, NULL)),
+       SUM(IF(o.status = 'DELIVERED', i.quantity, 0)),
+       SUM(IF(o.status = 'DELIVERED', i.quantity * i.unit_price, 0))
+FROM orders o
+         JOIN order_items i ON i.order_id = o.id
+GROUP BY DATE(o.order_date), i.product_id;
+
+-- Perf data generated after the backfill above is only rolled up by rebuilding all rollups
+-- changeset Marcin:1761387600000-5 context:perf
+DELETE FROM daily_sales;
+DELETE FROM daily_payment_method_sales;
+DELETE FROM daily_product_sales;
+
+INSERT INTO daily_sales
+SELECT DATE(o.order_date),
+       SUM(o.status <> 'CANCELLED'),
+       SUM(IF(o.status <> 'CANCELLED', o.total_items, 0)),
+       SUM(IF(o.status <> 'CANCELLED', o.total_price, 0)),
+       SUM(o.status = 'DELIVERED'),
+       SUM(IF(o.status = 'DELIVERED', o.total_items, 0)),
+       SUM(IF(o.status = 'DELIVERED', o.total_price, 0))
+FROM orders o
+GROUP BY DATE(o.order_date);
+
+INSERT INTO daily_payment_method_sales
+SELECT DATE(o.order_date),
+       o.payment_method,
+       SUM(o.status <> 'CANCELLED'),
+       SUM(IF(o.status <> 'CANCELLED', o.total_items, 0)),
+       SUM(IF(o.status <> 'CANCELLED', o.total_price, 0)),
+       SUM(o.status = 'DELIVERED'),
+       SUM(IF(o.status = 'DELIVERED', o.total_items, 0)),
+       SUM(IF(o.status = 'DELIVERED', o.total_price, 0))
+FROM orders o
+GROUP BY DATE(o.order_date), o.payment_method;
+
+INSERT INTO daily_product_sales
+SELECT DATE(o.order_date),
+       i.product_id,
+       COUNT(DISTINCT IF(o.status <> 'CANCELLED', o.id, NULL)),
+       SUM(IF(o.status <> 'CANCELLED', i.quantity, 0)),
+       SUM(IF(o.status <> 'CANCELLED', i.quantity * i.unit_price, 0)),
+       COUNT(DISTINCT IF(o.status = 'DELIVERED', o.id, NULL)),
+       SUM(IF(o.status = 'DELIVERED', i.quantity, 0)),
+       SUM(IF(o.status = 'DELIVERED', i.quantity * i.unit_price, 0))
+FROM orders o
+         JOIN order_items i ON i.order_id = o.id
+GROUP BY DATE(o.order_date), i.product_id;
@@ -0,0 +1,14 @@
+-- liquibase formatted sql
+
+-- Order lifecycle events written in the transaction of the order write and deleted once relayed to the event sink
+
+-- changeset Marcin:1761474000000-1
+CREATE TABLE order_outbox
+(
+    id         BIGINT AUTO_INCREMENT NOT NULL,
+    order_id   BIGINT                NOT NULL,
+    event_type VARCHAR(32)           NOT NULL,
+    payload    TEXT                  NOT NULL,
+    created_at DATETIME(6)           NOT NULL,
+    CONSTRAINT pk_order_outbox PRIMARY KEY (id)
+);
@@ -0,0 +1,15 @@
+-- liquibase formatted sql
+
+-- Responses of order creations sent with an Idempotency-Key, replayed to retries until they are purged
+
+-- changeset Marcin:1761560400000-1
+CREATE TABLE order_idempotency_keys
+(
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash    CHAR(64)     NOT NULL,
+    response        TEXT         NULL,
+    created_at      DATETIME(6)  NOT NULL,
+    CONSTRAINT pk_order_idempotency_keys PRIMARY KEY (idempotency_key)
+);
+
+CREATE INDEX idx_order_idempotency_keys_created_at ON order_idempotency_keys (created_at);
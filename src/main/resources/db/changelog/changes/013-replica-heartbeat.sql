@@ -0,0 +1,14 @@
+-- liquibase formatted sql
+
+-- Written on the primary by every instance routing reads to replicas, replicas are as far behind as their copy of it
+
+-- changeset Marcin:1761646800000-1
+CREATE TABLE replica_heartbeat
+(
+    id      TINYINT     NOT NULL,
+    beat_at DATETIME(6) NOT NULL,
+    CONSTRAINT pk_replica_heartbeat PRIMARY KEY (id)
+);
+
+INSERT INTO replica_heartbeat (id, beat_at)
+VALUES (1, NOW(6));
@@ -0,0 +1,136 @@
+package com.example.ordersapp.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ordersapp.OrdersappApplication;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Starts the application twice against the same MySQL container, once on platform threads and once on virtual
+ * threads, and drives both with the same closed-loop read load. Not part of the regular build, run it with
+ * {@code mvn test -Dtest=ThreadModeThroughputIT} and compare the logged throughput and latency. Both modes have to
+ * serve every request, virtual threads within 10% of the throughput of platform threads.
+ */
+@Slf4j
+@Testcontainers
+class ThreadModeThroughputIT {
+
+    private static final int CONCURRENT_CLIENTS = 500;
+    private static final Duration WARM_UP = Duration.ofSeconds(10);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(30);
+    private static final List<String> PATHS = List.of(
+        "/api/v1/orders/1",
+        "/api/v1/orders/2",
+        "/api/v1/products/1",
+        "/api/v1/orders?page=0&size=20&sortField=orderDate&direction=DESC");
+
+    @Container
+    private static final MySQLContainer<?> mysql = new MySQLContainer<>(DockerImageName.parse("mysql:latest"));
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+
+    @Test
+    void shouldServeSameLoadOnPlatformAndVirtualThreads() throws InterruptedException {
+        //given //when
+        Result platformThreads = runWith(false);
+        Result virtualThreads = runWith(true);
+
+        //then
+        log.info("Throughput by thread mode\n{}\n{}\n{}",
+            "%-16s %12s %10s %10s %8s".formatted("mode", "requests/s", "p50 [ms]", "p99 [ms]", "errors"),
+            platformThreads.format("platform"), virtualThreads.format("virtual"));
+
+        assertThat(platformThreads.errors()).isZero();
+        assertThat(virtualThreads.errors()).isZero();
+        assertThat(platformThreads.throughput()).isPositive();
+        assertThat(virtualThreads.throughput()).isGreaterThanOrEqualTo(platformThreads.throughput() * 0.9);
+    }
+
+    private Result runWith(boolean virtualThreads) throws InterruptedException {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OrdersappApplication.class)
+            .properties(
+                "server.port=0",
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "spring.datasource.url=" + mysql.getJdbcUrl(),
+                "spring.datasource.username=" + mysql.getUsername(),
+                "spring.datasource.password=" + mysql.getPassword(),
+                "spring.docker.compose.enabled=false",
+                "logging.level.org.hibernate.SQL=INFO")
+            .run()) {
+            URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            drive(baseUri, WARM_UP);
+            return drive(baseUri, MEASUREMENT);
+        }
+    }
+
+    private Result drive(URI baseUri, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<List<Long>> latencies = new ArrayList<>();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            IntStream.range(0, CONCURRENT_CLIENTS).forEach(client -> {
+                List<Long> clientLatencies = new ArrayList<>();
+                latencies.add(clientLatencies);
+                clients.submit(() -> {
+                    for (int request = client; System.nanoTime() < deadline; request++) {
+                        HttpRequest httpRequest = HttpRequest.newBuilder(
+                            baseUri.resolve(PATHS.get(request % PATHS.size()))).build();
+                        long start = System.nanoTime();
+                        try {
+                            int status = httpClient.send(httpRequest, HttpResponse.BodyHandlers.discarding())
+                                .statusCode();
+                            if (status != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        clientLatencies.add(System.nanoTime() - start);
+                    }
+                });
+            });
+        }
+
+        List<Long> allLatencies = new ArrayList<>(latencies.stream().flatMap(List::stream).toList());
+        Collections.sort(allLatencies);
+        return new Result(allLatencies.size() / (double) duration.toSeconds(),
+            percentile(allLatencies, 0.50), percentile(allLatencies, 0.99), errors.get());
+    }
+
+    private static double percentile(List<Long> sortedLatencies, double percentile) {
+        if (sortedLatencies.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedLatencies.size()) - 1;
+        return sortedLatencies.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis, long errors) {
+
+        String format(String mode) {
+            return "%-16s %12.1f %10.1f %10.1f %8d".formatted(mode, throughput, p50Millis, p99Millis, errors);
+        }
+    }
+}
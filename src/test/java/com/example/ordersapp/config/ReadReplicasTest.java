@@ -0,0 +1,77 @@
+package com.example.ordersapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class ReadReplicasTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(5);
+
+    @Mock
+    private HikariDataSource replicaDataSource;
+    @Mock
+    private JdbcTemplate replicaJdbcTemplate;
+
+    @ParameterizedTest
+    @ValueSource(longs = {-1, 1})
+    void shouldMeasureLagOnPrimaryClockWhenApplicationClockIsOffset(long offsetHours) {
+        //given
+        ReadReplicas readReplicas = readReplicas();
+        LocalDateTime primaryNow = LocalDateTime.now().plusHours(offsetHours);
+        replicaReceivedHeartbeat(primaryNow.minusSeconds(2));
+
+        //when
+        readReplicas.checkLag(primaryNow);
+
+        //then
+        assertThat(readReplicas.next()).contains(replicaDataSource);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {-1, 1})
+    void shouldSkipLaggingReplicaWhenApplicationClockIsOffset(long offsetHours) {
+        //given
+        ReadReplicas readReplicas = readReplicas();
+        LocalDateTime primaryNow = LocalDateTime.now().plusHours(offsetHours);
+        replicaReceivedHeartbeat(primaryNow.minus(MAX_LAG).minusSeconds(1));
+
+        //when
+        readReplicas.checkLag(primaryNow);
+
+        //then
+        assertThat(readReplicas.next()).isEmpty();
+    }
+
+    @Test
+    void shouldSkipReplicaUntilFirstLagCheck() {
+        //given
+        ReadReplicas readReplicas = readReplicas();
+
+        //when, then
+        assertThat(readReplicas.next()).isEmpty();
+    }
+
+    private ReadReplicas readReplicas() {
+        return new ReadReplicas(List.of(new ReadReplicas.Replica(replicaDataSource, replicaJdbcTemplate)), MAX_LAG);
+    }
+
+    private void replicaReceivedHeartbeat(LocalDateTime beatAt) {
+        when(replicaJdbcTemplate.queryForObject(anyString(), eq(Timestamp.class))).thenReturn(Timestamp.valueOf(beatAt));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.ordersapp.config;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource replica;
+    @Mock
+    private DataSource otherReplica;
+    @Mock
+    private ReadReplicas readReplicas;
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        dataSource = ReplicaRoutingDataSource.wrap(primary, readReplicas);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldKeepReadingFromFirstReplicaWithinRequest() throws SQLException {
+        //given
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(readReplicas.next()).thenReturn(Optional.of(replica), Optional.of(otherReplica));
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        //when
+        runReadOnlyStatement();
+        runReadOnlyStatement();
+
+        //then
+        verify(replicaConnection, times(2)).createStatement();
+        verify(otherReplica, never()).getConnection();
+    }
+
+    @Test
+    void shouldReadFromPrimaryWhenNoReplicaIsCaughtUp() throws SQLException {
+        //given
+        when(readReplicas.next()).thenReturn(Optional.empty());
+
+        //when
+        runReadOnlyStatement();
+
+        //then
+        verify(primaryConnection).createStatement();
+    }
+
+    @Test
+    void shouldReadFromPrimaryAfterRequestHasWritten() throws SQLException {
+        //given
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        runStatement(false);
+
+        //when
+        runReadOnlyStatement();
+
+        //then
+        verify(primaryConnection, times(2)).createStatement();
+        verify(readReplicas, never()).next();
+    }
+
+    private void runReadOnlyStatement() throws SQLException {
+        runStatement(true);
+    }
+
+    private void runStatement(boolean readOnly) throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(readOnly);
+            connection.createStatement();
+        }
+    }
+}
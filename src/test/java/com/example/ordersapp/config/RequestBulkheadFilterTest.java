@@ -0,0 +1,58 @@
+package com.example.ordersapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RequestBulkheadFilterTest {
+
+    private final RequestBulkheadFilter filter = new RequestBulkheadFilter(1, Duration.ofMillis(50));
+
+    @Test
+    void shouldRejectRequestWhenAllPermitsAreTaken() throws Exception {
+        //given
+        CountDownLatch admitted = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<Void> runningRequest = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/orders/1"), new MockHttpServletResponse(),
+                    (request, response) -> {
+                        admitted.countDown();
+                        await(finish);
+                    });
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        admitted.await();
+
+        //when
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/orders/2"), rejected,
+            (request, response) -> ((MockHttpServletResponse) response).setStatus(200));
+        finish.countDown();
+        runningRequest.get();
+        MockHttpServletResponse admittedLater = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/orders/3"), admittedLater,
+            (request, response) -> ((MockHttpServletResponse) response).setStatus(200));
+
+        //then
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(admittedLater.getStatus()).isEqualTo(200);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
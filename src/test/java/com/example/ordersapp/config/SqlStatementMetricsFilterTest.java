@@ -0,0 +1,65 @@
+package com.example.ordersapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+class SqlStatementMetricsFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqlStatementCounter sqlStatementCounter = new SqlStatementCounter();
+    private final SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldRecordStatementsOfRequestByUriPattern() throws Exception {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders/1");
+
+        //when
+        filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/orders/{id}");
+            sqlStatementCounter.inspect("select 1");
+            sqlStatementCounter.inspect("select 2");
+        });
+        sqlStatementCounter.inspect("select 3");
+
+        //then
+        DistributionSummary statements = meterRegistry.get("ordersapp.http.server.sql.statements")
+            .tag("method", "GET")
+            .tag("uri", "/api/v1/orders/{id}")
+            .summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRecordRequestsToSameUriPatternInOneSummary() throws Exception {
+        //when
+        for (String id : new String[]{"1", "2"}) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders/" + id);
+            filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+                RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+                request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/orders/{id}");
+                sqlStatementCounter.inspect("select 1");
+            });
+        }
+
+        //then
+        assertThat(meterRegistry.find("ordersapp.http.server.sql.statements").summaries()).hasSize(1);
+        assertThat(meterRegistry.get("ordersapp.http.server.sql.statements").summary().count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.ordersapp.orders.model.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import jakarta.validation.ValidationException;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class OrderCursorTest {
+
+    @Test
+    void shouldDecodeEncodedCursor() {
+        //given
+        OrderCursor cursor = new OrderCursor(LocalDateTime.of(2024, 8, 22, 10, 30, 0, 123_000_000), 42L);
+
+        //when
+        OrderCursor decoded = OrderCursor.decode(cursor.encode());
+
+        //then
+        assertThat(decoded).isEqualTo(cursor);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "not-a-cursor", "MjAyNC0wOC0yMlQxMDozMA", "MjAyNC0wOC0yMlQxMDozMHxhYmM"})
+    void shouldThrowValidationExceptionWhenCursorIsInvalid(String token) {
+        //when
+        Exception exception = assertThrows(ValidationException.class, () -> OrderCursor.decode(token));
+
+        //then
+        assertThat(exception.getMessage()).isEqualTo("Invalid cursor: " + token);
+    }
+}
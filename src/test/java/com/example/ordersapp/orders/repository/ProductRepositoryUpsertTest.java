@@ -0,0 +1,102 @@
+package com.example.ordersapp.orders.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ordersapp.TestcontainersConfiguration;
+import com.example.ordersapp.orders.model.dto.ProductImportRow;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+class ProductRepositoryUpsertTest {
+
+    // More rows than the pooled generator hands out per block, so drawing an id for each would advance the sequence
+    private static final int ROWS = 60;
+
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String skuPrefix = UUID.randomUUID().toString().substring(0, 8) + "-";
+
+    @Test
+    void shouldInsertNewSkusAndUpdateExistingOnesInPlace() {
+        //given
+        upsert(rows("Old name", 0, 10));
+        Map<String, Object> existing = findBySku(sku(0));
+
+        //when
+        upsert(rows("New name", 0, 11));
+
+        //then
+        Map<String, Object> updated = findBySku(sku(0));
+        assertThat(updated.get("id")).isEqualTo(existing.get("id"));
+        assertThat(updated.get("name")).isEqualTo("New name");
+        assertThat(updated.get("stock_quantity")).isEqualTo(7);
+        assertThat(updated.get("version")).isEqualTo(((Integer) existing.get("version")) + 1);
+        assertThat(findBySku(sku(10)).get("name")).isEqualTo("New name");
+    }
+
+    @Test
+    void shouldNotDrawIdsForExistingSkus() {
+        //given
+        upsert(rows("Old name", 0, ROWS));
+        Long nextId = jdbcTemplate.queryForObject("SELECT next_val FROM products_seq", Long.class);
+
+        //when
+        upsert(rows("New name", 0, ROWS));
+
+        //then
+        assertThat(jdbcTemplate.queryForObject("SELECT next_val FROM products_seq", Long.class)).isEqualTo(nextId);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE sku LIKE ? AND name = ?",
+            Integer.class, skuPrefix + "%", "New name")).isEqualTo(ROWS);
+    }
+
+    @Test
+    void shouldLeaveStockOfShardedProductToItsShards() {
+        //given
+        upsert(rows("Old name", 0, 1));
+        Long id = (Long) findBySku(sku(0)).get("id");
+        jdbcTemplate.update("UPDATE products SET stock_quantity = 0 WHERE id = ?", id);
+        jdbcTemplate.update("INSERT INTO product_stock_shards (product_id, shard_no, quantity) VALUES (?, 0, 5)", id);
+
+        //when
+        upsert(rows("New name", 0, 1));
+
+        //then
+        assertThat(findBySku(sku(0)))
+            .containsEntry("name", "New name")
+            .containsEntry("stock_quantity", 0);
+    }
+
+    private void upsert(List<ProductImportRow> rows) {
+        transactionTemplate.executeWithoutResult(status -> productRepository.upsertAllBySku(rows));
+    }
+
+    private List<ProductImportRow> rows(String name, int from, int to) {
+        return IntStream.range(from, to)
+            .mapToObj(i -> new ProductImportRow(sku(i), name, "Imported product", new BigDecimal("9.99"), 7))
+            .toList();
+    }
+
+    private Map<String, Object> findBySku(String sku) {
+        return jdbcTemplate.queryForMap("SELECT id, name, stock_quantity, version FROM products WHERE sku = ?", sku);
+    }
+
+    private String sku(int i) {
+        return skuPrefix + i;
+    }
+}
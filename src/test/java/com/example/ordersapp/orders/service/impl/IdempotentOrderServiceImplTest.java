@@ -0,0 +1,130 @@
+package com.example.ordersapp.orders.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.ordersapp.config.IdempotencyProperties;
+import com.example.ordersapp.orders.model.dto.NewOrderDto;
+import com.example.ordersapp.orders.model.dto.OrderItemDto;
+import com.example.ordersapp.orders.model.dto.projection.IdempotencyKeyRow;
+import com.example.ordersapp.orders.model.enums.OrderStatus;
+import com.example.ordersapp.orders.model.enums.PaymentMethod;
+import com.example.ordersapp.orders.repository.IdempotencyKeyRepository;
+import com.example.ordersapp.orders.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotentOrderServiceImplTest {
+
+    private static final String KEY = "6f1c2a4e-order";
+
+    @Mock
+    private OrderService orderService;
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final IdempotencyProperties properties = new IdempotencyProperties(Duration.ofHours(24), 100,
+        Duration.ofMinutes(10), 1000);
+    private IdempotentOrderServiceImpl idempotentOrderService;
+
+    @BeforeEach
+    void setUp() {
+        idempotentOrderService = new IdempotentOrderServiceImpl(orderService, idempotencyKeyRepository, objectMapper,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), properties);
+    }
+
+    @Test
+    void shouldCreateOrderOnceAndReplayItsResponse() {
+        //given
+        NewOrderDto order = createOrder(2);
+        NewOrderDto createdOrder = createdOrder(order);
+        when(idempotencyKeyRepository.findCreatedAfter(eq(KEY), any())).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.add(eq(KEY), anyString(), any())).thenReturn(true);
+        when(orderService.createOrder(order)).thenReturn(createdOrder);
+
+        //when
+        NewOrderDto first = idempotentOrderService.createOrder(KEY, order);
+        NewOrderDto retried = idempotentOrderService.createOrder(KEY, order);
+
+        //then
+        assertThat(first).isEqualTo(createdOrder);
+        assertThat(retried).isEqualTo(createdOrder);
+        verify(orderService, times(1)).createOrder(order);
+        verify(idempotencyKeyRepository).complete(eq(KEY), anyString());
+    }
+
+    @Test
+    void shouldRejectKeyReusedForDifferentOrder() {
+        //given
+        NewOrderDto order = createOrder(2);
+        when(idempotencyKeyRepository.findCreatedAfter(eq(KEY), any())).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.add(eq(KEY), anyString(), any())).thenReturn(true);
+        when(orderService.createOrder(order)).thenReturn(createdOrder(order));
+        idempotentOrderService.createOrder(KEY, order);
+
+        //when //then
+        assertThatThrownBy(() -> idempotentOrderService.createOrder(KEY, createOrder(3)))
+            .isInstanceOfSatisfying(ResponseStatusException.class,
+                ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        verify(orderService, times(1)).createOrder(any());
+    }
+
+    @Test
+    void shouldReplayResponseStoredByAnotherInstance() throws Exception {
+        //given
+        NewOrderDto order = createOrder(2);
+        NewOrderDto createdOrder = createdOrder(order);
+        when(idempotencyKeyRepository.findCreatedAfter(eq(KEY), any())).thenReturn(Optional.empty());
+        when(idempotencyKeyRepository.add(eq(KEY), anyString(), any())).thenReturn(true);
+        when(orderService.createOrder(order)).thenReturn(createdOrder);
+        idempotentOrderService.createOrder(KEY, order);
+        ArgumentCaptor<String> requestHash = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyKeyRepository).add(eq(KEY), requestHash.capture(), any());
+
+        IdempotentOrderServiceImpl otherInstance = new IdempotentOrderServiceImpl(orderService,
+            idempotencyKeyRepository, objectMapper, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            properties);
+        IdempotencyKeyRow row = new IdempotencyKeyRow(requestHash.getValue(),
+            objectMapper.writeValueAsString(createdOrder), LocalDateTime.now());
+        when(idempotencyKeyRepository.findCreatedAfter(eq(KEY), any())).thenReturn(Optional.of(row));
+
+        //when
+        NewOrderDto replayed = otherInstance.createOrder(KEY, order);
+
+        //then
+        assertThat(replayed).isEqualTo(createdOrder);
+        verify(orderService, times(1)).createOrder(any());
+    }
+
+    private static NewOrderDto createOrder(int quantity) {
+        return new NewOrderDto(null, 1L, List.of(new OrderItemDto(null, null, quantity, null)), null,
+            PaymentMethod.CARD, null);
+    }
+
+    private static NewOrderDto createdOrder(NewOrderDto order) {
+        return new NewOrderDto(100L, order.customerId(), order.orderItems(), OrderStatus.CREATED, order.paymentMethod(),
+            LocalDateTime.of(2026, 10, 18, 12, 0));
+    }
+}
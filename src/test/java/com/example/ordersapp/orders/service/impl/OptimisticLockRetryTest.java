@@ -0,0 +1,68 @@
+package com.example.ordersapp.orders.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import com.example.ordersapp.config.OptimisticLockRetryProperties;
+import com.example.ordersapp.orders.model.Order;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class OptimisticLockRetryTest {
+
+    private static final String OPERATION = "updateOrderPartially";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OptimisticLockRetry optimisticLockRetry;
+
+    @BeforeEach
+    void setUp() {
+        optimisticLockRetry = new OptimisticLockRetry(new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            meterRegistry, new OptimisticLockRetryProperties(3, Duration.ofMillis(1), Duration.ofMillis(2)));
+    }
+
+    @Test
+    void shouldRunUpdateAgainUntilItKeepsItsLock() {
+        //given
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when
+        Integer result = optimisticLockRetry.execute(OPERATION, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Order.class, 1L);
+            }
+            return attempts.get();
+        });
+
+        //then
+        assertThat(result).isEqualTo(3);
+        assertThat(count(OptimisticLockRetry.CONFLICTS_METRIC)).isEqualTo(2);
+        assertThat(count(OptimisticLockRetry.RETRIES_METRIC)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxAttempts() {
+        //given
+        AtomicInteger attempts = new AtomicInteger();
+
+        //when //then
+        assertThatThrownBy(() -> optimisticLockRetry.execute(OPERATION, () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Order.class, 1L);
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(attempts).hasValue(3);
+        assertThat(count(OptimisticLockRetry.CONFLICTS_METRIC)).isEqualTo(3);
+        assertThat(count(OptimisticLockRetry.RETRIES_METRIC)).isEqualTo(2);
+    }
+
+    private double count(String metric) {
+        return meterRegistry.get(metric).tag("operation", OPERATION).counter().count();
+    }
+}
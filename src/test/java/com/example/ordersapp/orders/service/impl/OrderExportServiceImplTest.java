@@ -0,0 +1,90 @@
+package com.example.ordersapp.orders.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.example.ordersapp.orders.model.dto.OrderExportParams;
+import com.example.ordersapp.orders.model.dto.projection.OrderExportRow;
+import com.example.ordersapp.orders.model.enums.FileFormat;
+import com.example.ordersapp.orders.model.enums.OrderStatus;
+import com.example.ordersapp.orders.model.enums.PaymentMethod;
+import com.example.ordersapp.orders.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExportServiceImplTest {
+
+    private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private OrderExportServiceImpl orderExportService;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        orderExportService = new OrderExportServiceImpl(orderRepository, objectMapper);
+    }
+
+    @Test
+    void shouldWriteOneJsonLinePerOrderWithItsItems() throws IOException {
+        //given
+        OrderExportParams params = new OrderExportParams(null, null, null, null, true);
+        when(orderRepository.streamOrderExportRows(params)).thenReturn(Stream.of(
+            itemRow(1L, 10L, 100L),
+            itemRow(1L, 11L, 101L),
+            new OrderExportRow(2L, 7L, OrderStatus.CREATED, PaymentMethod.CARD, ORDER_DATE, 0, BigDecimal.ZERO)));
+
+        //when
+        orderExportService.exportOrders(params, FileFormat.NDJSON, out);
+
+        //then
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+            """
+                {"id":1,"customerId":7,"status":"CREATED","paymentMethod":"CARD","orderDate":"2024-05-01T12:00:00",\
+                "totalItems":4,"totalPrice":39.96,"orderItems":[{"id":10,"productId":100,"quantity":2,"unitPrice":9.99},\
+                {"id":11,"productId":101,"quantity":2,"unitPrice":9.99}]}""",
+            """
+                {"id":2,"customerId":7,"status":"CREATED","paymentMethod":"CARD","orderDate":"2024-05-01T12:00:00",\
+                "totalItems":0,"totalPrice":0,"orderItems":[]}""");
+    }
+
+    @Test
+    void shouldWriteCsvLinePerOrderItem() throws IOException {
+        //given
+        OrderExportParams params = new OrderExportParams(null, null, null, null, true);
+        when(orderRepository.streamOrderExportRows(params)).thenReturn(Stream.of(
+            itemRow(1L, 10L, 100L),
+            itemRow(1L, 11L, 101L)));
+
+        //when
+        orderExportService.exportOrders(params, FileFormat.CSV, out);
+
+        //then
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+            "id,customerId,status,paymentMethod,orderDate,totalItems,totalPrice,itemId,productId,quantity,unitPrice",
+            "1,7,CREATED,CARD,2024-05-01T12:00:00,4,39.96,10,100,2,9.99",
+            "1,7,CREATED,CARD,2024-05-01T12:00:00,4,39.96,11,101,2,9.99");
+    }
+
+    private static OrderExportRow itemRow(Long orderId, Long itemId, Long productId) {
+        return new OrderExportRow(orderId, 7L, OrderStatus.CREATED, PaymentMethod.CARD, ORDER_DATE,
+            4, new BigDecimal("39.96"), itemId, productId, 2, new BigDecimal("9.99"));
+    }
+}
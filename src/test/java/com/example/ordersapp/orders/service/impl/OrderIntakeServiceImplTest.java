@@ -0,0 +1,125 @@
+package com.example.ordersapp.orders.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.ordersapp.config.OrderIntakeProperties;
+import com.example.ordersapp.orders.model.dto.NewOrderDto;
+import com.example.ordersapp.orders.model.dto.OrderBatchResultDto;
+import com.example.ordersapp.orders.model.dto.OrderIntakeStatusDto;
+import com.example.ordersapp.orders.model.dto.OrderItemDto;
+import com.example.ordersapp.orders.model.dto.ProductDto;
+import com.example.ordersapp.orders.model.enums.OrderIntakeStatus;
+import com.example.ordersapp.orders.model.enums.PaymentMethod;
+import com.example.ordersapp.orders.service.OrderService;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIntakeServiceImplTest {
+
+    @Mock
+    private OrderService orderService;
+
+    private OrderIntakeServiceImpl orderIntakeService;
+
+    @BeforeEach
+    void setUp() {
+        orderIntakeService = new OrderIntakeServiceImpl(orderService,
+            new OrderIntakeProperties(2, 10, Duration.ofMinutes(1), 100, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void shouldCreateQueuedOrdersInOneBatch() throws InterruptedException {
+        //given
+        NewOrderDto firstOrder = createNewOrderDto(1L);
+        NewOrderDto secondOrder = createNewOrderDto(2L);
+        OrderIntakeStatusDto firstStatus = orderIntakeService.submit(firstOrder);
+        OrderIntakeStatusDto secondStatus = orderIntakeService.submit(secondOrder);
+        when(orderService.createOrders(List.of(firstOrder, secondOrder))).thenReturn(List.of(
+            OrderBatchResultDto.created(0, 10L),
+            OrderBatchResultDto.failed(1, "Insufficient stock for product id: 1")));
+
+        //when
+        orderIntakeService.createNextBatch(0);
+
+        //then
+        verify(orderService).createOrders(List.of(firstOrder, secondOrder));
+        assertThat(firstStatus.status()).isEqualTo(OrderIntakeStatus.QUEUED);
+        assertThat(orderIntakeService.getStatus(firstStatus.trackingId().toString()))
+            .contains(OrderIntakeStatusDto.created(firstStatus.trackingId(), 10L));
+        assertThat(orderIntakeService.getStatus(secondStatus.trackingId().toString()))
+            .contains(OrderIntakeStatusDto.failed(secondStatus.trackingId(), "Insufficient stock for product id: 1"));
+    }
+
+    @Test
+    void shouldRejectOrderWhenQueueIsFull() {
+        //given
+        orderIntakeService.submit(createNewOrderDto(1L));
+        orderIntakeService.submit(createNewOrderDto(1L));
+
+        //when //then
+        assertThatThrownBy(() -> orderIntakeService.submit(createNewOrderDto(1L)))
+            .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void shouldFailEveryOrderOfBatchWhenTransactionFails() throws InterruptedException {
+        //given
+        OrderIntakeStatusDto status = orderIntakeService.submit(createNewOrderDto(1L));
+        when(orderService.createOrders(any())).thenThrow(new CannotAcquireLockException("Lock wait timeout"));
+
+        //when
+        orderIntakeService.createNextBatch(0);
+
+        //then
+        assertThat(orderIntakeService.getStatus(status.trackingId().toString()))
+            .hasValueSatisfying(failed -> assertThat(failed.status()).isEqualTo(OrderIntakeStatus.FAILED));
+    }
+
+    @Test
+    void shouldFailEveryOrderOfBatchWhenCreationThrowsError() throws InterruptedException {
+        //given
+        OrderIntakeStatusDto status = orderIntakeService.submit(createNewOrderDto(1L));
+        when(orderService.createOrders(any())).thenThrow(new StackOverflowError());
+
+        //when
+        orderIntakeService.createNextBatch(0);
+
+        //then
+        assertThat(orderIntakeService.getStatus(status.trackingId().toString()))
+            .hasValueSatisfying(failed -> assertThat(failed.status()).isEqualTo(OrderIntakeStatus.FAILED));
+    }
+
+    @Test
+    void shouldKeepQueuedStatusesBeyondMaximumOfOutcomes() {
+        //given
+        orderIntakeService = new OrderIntakeServiceImpl(orderService,
+            new OrderIntakeProperties(10, 10, Duration.ofMinutes(1), 1, Duration.ofSeconds(1)));
+
+        //when
+        List<OrderIntakeStatusDto> statuses = List.of(
+            orderIntakeService.submit(createNewOrderDto(1L)),
+            orderIntakeService.submit(createNewOrderDto(1L)),
+            orderIntakeService.submit(createNewOrderDto(1L)));
+
+        //then
+        assertThat(statuses).allSatisfy(status ->
+            assertThat(orderIntakeService.getStatus(status.trackingId().toString())).contains(status));
+    }
+
+    private static NewOrderDto createNewOrderDto(Long productId) {
+        OrderItemDto orderItem = new OrderItemDto(null, new ProductDto(productId, null, null, null, null, null), 1, null);
+        return new NewOrderDto(null, 1L, List.of(orderItem), null, PaymentMethod.CARD, null);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.ordersapp.orders.service.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.ordersapp.config.OutboxProperties;
+import com.example.ordersapp.orders.model.enums.OrderEventType;
+import com.example.ordersapp.orders.model.event.OrderOutboxMessage;
+import com.example.ordersapp.orders.repository.OrderOutboxRepository;
+import com.example.ordersapp.orders.service.OrderEventSink;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+@ExtendWith(MockitoExtension.class)
+class OrderOutboxRelayTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private OrderOutboxRepository orderOutboxRepository;
+    @Mock
+    private OrderEventSink orderEventSink;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderOutboxRelay orderOutboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        OutboxProperties properties = new OutboxProperties("memory", Path.of("order-events.ndjson"), 100, BATCH_SIZE,
+            Duration.ofSeconds(1));
+        orderOutboxRelay = new OrderOutboxRelay(orderOutboxRepository, orderEventSink, properties,
+            transactionManager);
+    }
+
+    @Test
+    void shouldRelayBatchesInOrderUntilOutboxIsEmpty() {
+        //given
+        List<OrderOutboxMessage> firstBatch = List.of(createMessage(1L), createMessage(2L));
+        List<OrderOutboxMessage> lastBatch = List.of(createMessage(3L));
+        when(orderOutboxRepository.lockOldest(BATCH_SIZE)).thenReturn(firstBatch, lastBatch);
+
+        //when
+        orderOutboxRelay.relay();
+
+        //then
+        InOrder inOrder = inOrder(orderEventSink, orderOutboxRepository);
+        inOrder.verify(orderEventSink).publish(firstBatch);
+        inOrder.verify(orderOutboxRepository).deleteAllById(List.of(1L, 2L));
+        inOrder.verify(orderEventSink).publish(lastBatch);
+        inOrder.verify(orderOutboxRepository).deleteAllById(List.of(3L));
+    }
+
+    @Test
+    void shouldKeepMessagesInOutboxWhenSinkFails() {
+        //given
+        List<OrderOutboxMessage> batch = List.of(createMessage(1L));
+        when(orderOutboxRepository.lockOldest(BATCH_SIZE)).thenReturn(batch);
+        doThrow(new IllegalStateException("Broker unavailable")).when(orderEventSink).publish(batch);
+
+        //when
+        orderOutboxRelay.relay();
+
+        //then
+        verify(orderOutboxRepository, never()).deleteAllById(any());
+    }
+
+    @Test
+    void shouldRelayInReadCommittedTransactionToAvoidGapLocks() {
+        //given
+        when(orderOutboxRepository.lockOldest(BATCH_SIZE)).thenReturn(List.of());
+
+        //when
+        orderOutboxRelay.relay();
+
+        //then
+        verify(transactionManager).getTransaction(argThat(definition ->
+            definition.getIsolationLevel() == TransactionDefinition.ISOLATION_READ_COMMITTED));
+    }
+
+    private static OrderOutboxMessage createMessage(Long id) {
+        return new OrderOutboxMessage(id, 10L, OrderEventType.ORDER_CREATED, "{}");
+    }
+}
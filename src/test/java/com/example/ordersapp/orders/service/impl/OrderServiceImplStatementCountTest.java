@@ -0,0 +1,124 @@
+package com.example.ordersapp.orders.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ordersapp.TestcontainersConfiguration;
+import com.example.ordersapp.orders.model.Product;
+import com.example.ordersapp.orders.model.dto.NewOrderDto;
+import com.example.ordersapp.orders.model.dto.OrderDetailsDto;
+import com.example.ordersapp.orders.model.dto.OrderItemDto;
+import com.example.ordersapp.orders.model.dto.ProductDto;
+import com.example.ordersapp.orders.model.enums.PaymentMethod;
+import com.example.ordersapp.orders.repository.ProductRepository;
+import com.example.ordersapp.orders.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderServiceImplStatementCountTest {
+
+    private static final int ORDER_LINES = 40;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        products = productRepository.saveAll(IntStream.rangeClosed(1, ORDER_LINES)
+            .mapToObj(this::createProduct)
+            .toList());
+
+        // Prime the pooled id blocks so the measured order does not pay for the first sequence round trip
+        orderService.createOrder(createNewOrderDto(1));
+    }
+
+    @Test
+    void shouldPersistMultiLineOrderInHandfulOfStatements() {
+        //given
+        NewOrderDto newOrderDto = createNewOrderDto(ORDER_LINES);
+        statistics.clear();
+
+        //when
+        orderService.createOrder(newOrderDto);
+
+        //then
+        // Inserts are batched, stock is reserved with one shard lookup and one conditional update per product
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ORDER_LINES + 1);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(9 + ORDER_LINES);
+    }
+
+    @Test
+    void shouldOnlyAddStockUpdatesForLongerOrders() {
+        //given
+        statistics.clear();
+        orderService.createOrder(createNewOrderDto(2));
+        long twoLineStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+
+        //when
+        orderService.createOrder(createNewOrderDto(ORDER_LINES));
+
+        //then
+        // Besides the stock update per extra product, a longer order may only cross one more pooled id block boundary
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(twoLineStatements + (ORDER_LINES - 2) + 2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, ORDER_LINES})
+    void shouldReadOrderDetailsWithFixedNumberOfStatements(int lines) {
+        //given
+        Long orderId = orderService.createOrder(createNewOrderDto(lines)).id();
+        statistics.clear();
+
+        //when
+        Optional<OrderDetailsDto> orderDetails = orderService.getOrderDetailsById(orderId);
+
+        //then
+        assertThat(orderDetails).isPresent();
+        assertThat(orderDetails.get().getOrderItems()).hasSize(lines);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private NewOrderDto createNewOrderDto(int lines) {
+        List<OrderItemDto> orderItems = products.stream()
+            .limit(lines)
+            .map(product -> new OrderItemDto(null, toProductDto(product), 1, null))
+            .toList();
+        return new NewOrderDto(null, 1L, orderItems, null, PaymentMethod.CARD, null);
+    }
+
+    private Product createProduct(int index) {
+        Product product = new Product();
+        product.setName("Product " + index);
+        product.setDescription("Statement count test product");
+        product.setPrice(new BigDecimal("9.99"));
+        product.setStockQuantity(1_000);
+        return product;
+    }
+
+    private static ProductDto toProductDto(Product product) {
+        return new ProductDto(product.getId(), null, null, null, null, null);
+    }
+}
@@ -4,24 +4,42 @@ import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
+import com.example.ordersapp.config.OptimisticLockRetryProperties;
 import com.example.ordersapp.orders.model.Customer;
 import com.example.ordersapp.orders.model.Order;
+import com.example.ordersapp.orders.model.OrderItem;
 import com.example.ordersapp.orders.model.Product;
 import com.example.ordersapp.orders.model.dto.NewOrderDto;
+import com.example.ordersapp.orders.model.dto.OrderBatchResultDto;
 import com.example.ordersapp.orders.model.dto.OrderDetailsDto;
 import com.example.ordersapp.orders.model.dto.OrderItemDto;
 import com.example.ordersapp.orders.model.dto.ProductDto;
 import com.example.ordersapp.orders.model.dto.mapper.ProductMapper;
+import com.example.ordersapp.orders.model.dto.projection.OrderHeaderRow;
+import com.example.ordersapp.orders.model.dto.projection.OrderItemRow;
+import com.example.ordersapp.orders.model.enums.BatchResultStatus;
 import com.example.ordersapp.orders.model.enums.OrderStatus;
 import com.example.ordersapp.orders.model.enums.PaymentMethod;
+import com.example.ordersapp.orders.model.event.OrderSnapshot;
+import com.example.ordersapp.orders.model.event.OrderUpdatedEvent;
 import com.example.ordersapp.orders.repository.CustomerRepository;
 import com.example.ordersapp.orders.repository.OrderRepository;
 import com.example.ordersapp.orders.repository.ProductRepository;
+import com.example.ordersapp.orders.service.StockReservationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Path;
 import jakarta.validation.ValidationException;
+import jakarta.validation.Validator;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
@@ -33,7 +51,13 @@ import org.mapstruct.factory.Mappers;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceImplTest {
@@ -44,12 +68,27 @@ class OrderServiceImplTest {
     private CustomerRepository customerRepository;
     @Mock
     private ProductRepository productRepository;
+    @Mock
+    private ProductCatalog productCatalog;
+    @Mock
+    private StockReservationService stockReservationService;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private Validator validator;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private OptimisticLockRetry optimisticLockRetry = new OptimisticLockRetry(
+        new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry(),
+        new OptimisticLockRetryProperties(3, Duration.ZERO, Duration.ZERO));
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private OrderServiceImpl orderService;
 
     private static final ProductMapper productMapper = Mappers.getMapper(ProductMapper.class);
-    private final ArgumentCaptor<Order> captor = ArgumentCaptor.forClass(Order.class);
 
     @Test
     void shouldCreateOrderWithValidDataAndReduceStockQuantity() {
@@ -77,9 +116,8 @@ class OrderServiceImplTest {
         assertThat(secondProduct.id()).isEqualTo(2L);
         assertThat(firstProduct.name()).isEqualTo("test");
         assertThat(secondProduct.name()).isEqualTo("test2");
-        assertThat(firstProduct.stockQuantity()).isEqualTo(13);
-        assertThat(secondProduct.stockQuantity()).isEqualTo(7);
 
+        verify(stockReservationService, times(1)).reserve(Map.of(1L, 2, 2L, 3));
         verify(orderRepository, times(1)).save(any(Order.class));
     }
 
@@ -102,15 +140,37 @@ class OrderServiceImplTest {
     }
 
     @Test
-    void shouldCalculateValidTotalPriceWhenRetrievingOrderDetails() {
+    void shouldCalculateTotalsWhenCreatingOrder() {
         //given
-        NewOrderDto newOrderDto = createNewOrderDto(PaymentMethod.BLIK);
+        NewOrderDto newOrderDto = createNewOrderDto(PaymentMethod.CARD);
+        ArgumentCaptor<Order> savedOrder = ArgumentCaptor.forClass(Order.class);
 
         when(customerRepository.findById(1L)).thenReturn(Optional.of(createMockCustomer()));
         when(productRepository.findAllById(any())).thenReturn(createMockProducts());
+        when(orderRepository.save(savedOrder.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        //when
         orderService.createOrder(newOrderDto);
-        verify(orderRepository, times(1)).save(captor.capture());
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(captor.getValue()));
+
+        //then
+        assertThat(savedOrder.getValue().getTotalItems()).isEqualTo(5);
+        assertThat(savedOrder.getValue().getTotalPrice()).isEqualTo(new BigDecimal("319.95"));
+    }
+
+    @Test
+    void shouldReadPersistedTotalsWhenRetrievingOrderDetails() {
+        //given
+        OrderHeaderRow header = new OrderHeaderRow(1L, 1L, "John", "Doe", "test@test.com", "Lipowa 15",
+            "Warszawa", "50-001", "Polska", "123456789", OrderStatus.CREATED, PaymentMethod.BLIK, LocalDateTime.now(),
+            5, new BigDecimal("319.95"));
+        List<OrderItemRow> items = createMockOrderItemsDtos().stream()
+            .map(item -> new OrderItemRow(item.id(), item.product().id(), item.product().sku(), item.product().name(),
+                item.product().description(), item.product().price(), item.product().stockQuantity(),
+                item.quantity(), item.unitPrice()))
+            .toList();
+
+        when(orderRepository.findOrderHeaderById(1L)).thenReturn(Optional.of(header));
+        when(orderRepository.findOrderItemRowsByOrderId(1L)).thenReturn(items);
 
         //when
         Optional<OrderDetailsDto> createdOrder = orderService.getOrderDetailsById(1L);
@@ -120,8 +180,10 @@ class OrderServiceImplTest {
         OrderDetailsDto orderDetailsDto = createdOrder.get();
         assertThat(orderDetailsDto.getTotalItems()).isEqualTo(5);
         assertThat(orderDetailsDto.getTotalPrice()).isEqualTo(new BigDecimal("319.95"));
+        assertThat(orderDetailsDto.getCustomer().id()).isEqualTo(1L);
+        assertThat(orderDetailsDto.getOrderItems().getFirst().product().name()).isEqualTo("test");
 
-        verify(orderRepository, times(1)).save(any(Order.class));
+        verify(orderRepository, never()).findById(any());
     }
 
     @Test
@@ -142,13 +204,90 @@ class OrderServiceImplTest {
         verify(orderRepository, never()).save(any(Order.class));
     }
 
+    @Test
+    void shouldCreateValidOrdersAndReportFailedOnesInBatch() {
+        //given
+        List<NewOrderDto> orderDtos = List.of(
+            createNewOrderDto(PaymentMethod.CARD),
+            new NewOrderDto(null, 2L, createMockOrderItemsDtos(), null, PaymentMethod.CARD, null),
+            createInvalidNewOrderDto(PaymentMethod.CARD),
+            createNewOrderDto(PaymentMethod.CASH));
+
+        when(customerRepository.findAllById(any())).thenReturn(List.of(createMockCustomer()));
+        when(productRepository.findAllByIdInOrderById(any())).thenReturn(createMockProducts());
+
+        //when
+        List<OrderBatchResultDto> results = orderService.createOrders(orderDtos);
+
+        //then
+        assertThat(results).extracting(OrderBatchResultDto::status).containsExactly(
+            BatchResultStatus.CREATED, BatchResultStatus.FAILED, BatchResultStatus.FAILED, BatchResultStatus.CREATED);
+        assertThat(results.get(1).error()).isEqualTo("Customer with customerId 2 not found");
+        assertThat(results.get(2).error()).isEqualTo("Invalid product id: 99");
+
+        verify(customerRepository, times(1)).findAllById(any());
+        verify(productRepository, times(1)).findAllByIdInOrderById(any());
+        verify(stockReservationService, times(2)).reserve(any());
+        verify(entityManager, times(2)).persist(any(Order.class));
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(orderRepository, times(1)).flush();
+    }
+
+    @Test
+    void shouldFailOrderInBatchWhenStockIsInsufficient() {
+        //given
+        List<NewOrderDto> orderDtos = List.of(
+            createNewOrderDto(PaymentMethod.CARD),
+            createNewOrderDto(PaymentMethod.CARD),
+            createNewOrderDto(PaymentMethod.CARD),
+            createNewOrderDto(PaymentMethod.CARD));
+
+        when(customerRepository.findAllById(any())).thenReturn(List.of(createMockCustomer()));
+        when(productRepository.findAllByIdInOrderById(any())).thenReturn(createMockProducts());
+        doNothing().doNothing().doNothing()
+            .doThrow(new ResponseStatusException(HttpStatus.CONFLICT, "Insufficient stock for product id: 2"))
+            .when(stockReservationService).reserve(any());
+
+        //when
+        List<OrderBatchResultDto> results = orderService.createOrders(orderDtos);
+
+        //then
+        assertThat(results).extracting(OrderBatchResultDto::status).containsExactly(
+            BatchResultStatus.CREATED, BatchResultStatus.CREATED, BatchResultStatus.CREATED, BatchResultStatus.FAILED);
+        assertThat(results.get(3).error()).isEqualTo("Insufficient stock for product id: 2");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFailOrderInBatchBeforeReservingStockWhenOrderIsInvalid() {
+        //given
+        ConstraintViolation<Order> violation = mock(ConstraintViolation.class);
+        Path propertyPath = mock(Path.class);
+        when(propertyPath.toString()).thenReturn("paymentMethod");
+        when(violation.getPropertyPath()).thenReturn(propertyPath);
+        when(violation.getMessage()).thenReturn("must not be null");
+
+        when(customerRepository.findAllById(any())).thenReturn(List.of(createMockCustomer()));
+        when(productRepository.findAllByIdInOrderById(any())).thenReturn(createMockProducts());
+        when(validator.validate(any(NewOrderDto.class))).thenReturn(Set.of());
+        when(validator.validate(any(Order.class))).thenReturn(Set.of(violation));
+
+        //when
+        List<OrderBatchResultDto> results = orderService.createOrders(List.of(createNewOrderDto(null)));
+
+        //then
+        assertThat(results).containsExactly(OrderBatchResultDto.failed(0, "paymentMethod must not be null"));
+        verify(stockReservationService, never()).reserve(any());
+        verify(entityManager, never()).persist(any());
+    }
+
     @ParameterizedTest
     @MethodSource("provideInvalidOrderStatusTransitions")
     void shouldThrowValidationErrorWhenInvalidOrderStatusTransition(OrderStatus initialStatus, OrderStatus newStatus) {
         //given
         Long orderId = 1L;
         OrderDetailsDto updatedOrder = new OrderDetailsDto(null, null,
-            null, newStatus, null, null);
+            null, null, null, newStatus, null, null);
 
         Order existingOrder = new Order();
         existingOrder.setId(orderId);
@@ -157,7 +296,7 @@ class OrderServiceImplTest {
         when(orderRepository.findById(orderId)).thenReturn(Optional.of(existingOrder));
 
         //when
-        Exception exception = assertThrows(ValidationException.class, () -> orderService.updateOrderPartially(orderId, updatedOrder));
+        Exception exception = assertThrows(ValidationException.class, () -> orderService.updateOrderPartially(orderId, updatedOrder, null));
 
         //then
         String expectedMessage = "Invalid order status change %s -> %s"
@@ -168,13 +307,71 @@ class OrderServiceImplTest {
         verify(orderRepository, never()).save(any());
     }
 
+    @Test
+    void shouldKeepItemsWhenReplacingOrderWithoutItems() {
+        //given
+        Long orderId = 1L;
+        OrderDetailsDto replacement = new OrderDetailsDto(null, null,
+            null, null, null, OrderStatus.ACCEPTED, PaymentMethod.CARD, null);
+
+        Product product = new Product();
+        product.setId(7L);
+        product.setStockQuantity(5);
+        OrderItem orderItem = new OrderItem();
+        orderItem.setProduct(product);
+        orderItem.setQuantity(2);
+        orderItem.setUnitPrice(new BigDecimal("10.00"));
+        Order existingOrder = new Order();
+        existingOrder.setId(orderId);
+        existingOrder.setStatus(OrderStatus.CREATED);
+        existingOrder.setPaymentMethod(PaymentMethod.CARD);
+        existingOrder.setOrderItems(new ArrayList<>(List.of(orderItem)));
+        orderItem.setOrder(existingOrder);
+
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(existingOrder));
+        when(orderRepository.saveAndFlush(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        //when
+        orderService.updateOrder(orderId, replacement, null);
+
+        //then
+        ArgumentCaptor<OrderUpdatedEvent> event = ArgumentCaptor.forClass(OrderUpdatedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().order().orderLines())
+            .containsExactly(new OrderSnapshot.OrderLine(7L, 2, new BigDecimal("10.00")));
+        assertThat(event.getValue().order().totalItems()).isEqualTo(2);
+        assertThat(event.getValue().order().totalPrice()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void shouldThrowValidationErrorWhenReplacingOrderWithoutStatus() {
+        //given
+        Long orderId = 1L;
+        OrderDetailsDto replacement = new OrderDetailsDto(null, null,
+            null, null, null, null, PaymentMethod.CARD, null);
+
+        Order existingOrder = new Order();
+        existingOrder.setId(orderId);
+        existingOrder.setStatus(OrderStatus.CREATED);
+
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(existingOrder));
+
+        //when
+        Exception exception = assertThrows(ValidationException.class,
+            () -> orderService.updateOrder(orderId, replacement, null));
+
+        //then
+        assertThat(exception.getMessage()).isEqualTo("Invalid order status change CREATED -> null");
+        verify(orderRepository, never()).saveAndFlush(any());
+    }
+
     @ParameterizedTest
     @MethodSource("provideValidOrderStatusTransitions")
     void shouldChangeOrderStatusWhenValidOrderStatusTransition(OrderStatus initialStatus, OrderStatus newStatus) {
         //given
         Long orderId = 1L;
         OrderDetailsDto updateOrderDto = new OrderDetailsDto(null, null,
-            null, newStatus, null, null);
+            null, null, null, newStatus, null, null);
 
         Order existingOrder = new Order();
         existingOrder.setId(orderId);
@@ -184,7 +381,7 @@ class OrderServiceImplTest {
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         //when
-        Optional<OrderDetailsDto> updatedOrder = orderService.updateOrderPartially(orderId, updateOrderDto);
+        Optional<OrderDetailsDto> updatedOrder = orderService.updateOrderPartially(orderId, updateOrderDto, null);
 
         //then
         assertThat(updatedOrder).isPresent();
@@ -193,6 +390,61 @@ class OrderServiceImplTest {
         assertThat(orderDetailsDto.getStatus()).isEqualTo(newStatus);
 
         verify(orderRepository, times(1)).save(any(Order.class));
+
+        ArgumentCaptor<OrderUpdatedEvent> event = ArgumentCaptor.forClass(OrderUpdatedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().previous().status()).isEqualTo(initialStatus);
+        assertThat(event.getValue().order().status()).isEqualTo(newStatus);
+    }
+
+    @Test
+    void shouldPublishPersistedOrderWhenReplacingOrder() {
+        //given
+        Long orderId = 1L;
+        LocalDateTime orderDate = LocalDateTime.of(2024, 5, 1, 12, 0);
+        OrderDetailsDto replacement = new OrderDetailsDto(null, null,
+            null, null, null, OrderStatus.ACCEPTED, PaymentMethod.CARD, null);
+
+        Order existingOrder = new Order();
+        existingOrder.setId(orderId);
+        existingOrder.setVersion(4);
+        existingOrder.setStatus(OrderStatus.CREATED);
+        existingOrder.setPaymentMethod(PaymentMethod.CARD);
+        existingOrder.setOrderDate(orderDate);
+
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(existingOrder));
+        when(orderRepository.saveAndFlush(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        //when
+        orderService.updateOrder(orderId, replacement, null);
+
+        //then
+        ArgumentCaptor<Order> savedOrder = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).saveAndFlush(savedOrder.capture());
+        assertThat(savedOrder.getValue().getVersion()).isEqualTo(4);
+
+        ArgumentCaptor<OrderUpdatedEvent> event = ArgumentCaptor.forClass(OrderUpdatedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().order().id()).isEqualTo(orderId);
+        assertThat(event.getValue().order().orderDate()).isEqualTo(orderDate);
+        assertThat(event.getValue().order().status()).isEqualTo(OrderStatus.ACCEPTED);
+    }
+
+    @Test
+    void shouldRejectStaleUpdateBeforeLoadingOrder() {
+        //given
+        Long orderId = 1L;
+        OrderDetailsDto patch = new OrderDetailsDto(null, null,
+            null, null, null, OrderStatus.ACCEPTED, null, null);
+        when(orderRepository.findVersionById(orderId)).thenReturn(Optional.of(3));
+
+        //when
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+            () -> orderService.updateOrderPartially(orderId, patch, 2));
+
+        //then
+        assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        verify(orderRepository, never()).findById(any());
     }
 
     private static @NotNull NewOrderDto createNewOrderDto(PaymentMethod paymentMethod) {
@@ -228,8 +480,8 @@ class OrderServiceImplTest {
     }
 
     private static @NotNull List<OrderItemDto> createMockOrderItemsDtos() {
-        ProductDto productDto = new ProductDto(1L, "test", "desc", new BigDecimal("99.99"), 15);
-        ProductDto productDto2 = new ProductDto(2L, "test2", "desc2", new BigDecimal("39.99"), 10);
+        ProductDto productDto = new ProductDto(1L, "SKU-1", "test", "desc", new BigDecimal("99.99"), 15);
+        ProductDto productDto2 = new ProductDto(2L, "SKU-2", "test2", "desc2", new BigDecimal("39.99"), 10);
 
         return List.of(
             new OrderItemDto(1L, productDto, 2, productDto.price()),
@@ -238,8 +490,8 @@ class OrderServiceImplTest {
     }
 
     private static @NotNull List<OrderItemDto> createInvalidMockOrderItemsDtos() {
-        ProductDto productDto = new ProductDto(99L, null, null, null, null);
-        ProductDto productDto2 = new ProductDto(999L, null, null, null, null);
+        ProductDto productDto = new ProductDto(99L, null, null, null, null, null);
+        ProductDto productDto2 = new ProductDto(999L, null, null, null, null, null);
 
         return List.of(
             new OrderItemDto(1L, productDto, 2, productDto.price()),
@@ -0,0 +1,56 @@
+package com.example.ordersapp.orders.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import com.example.ordersapp.config.OrderStreamProperties;
+import com.example.ordersapp.orders.repository.CustomerRepository;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusStreamServiceImplTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    private OrderStatusStreamServiceImpl orderStatusStreamService;
+
+    @BeforeEach
+    void setUp() {
+        orderStatusStreamService = new OrderStatusStreamServiceImpl(customerRepository,
+            new OrderStreamProperties(Duration.ofMinutes(1), Duration.ofSeconds(30), 2));
+    }
+
+    @Test
+    void shouldRejectSubscriptionsBeyondLimitOfCustomer() {
+        //given
+        when(customerRepository.existsById(1L)).thenReturn(true);
+        orderStatusStreamService.subscribe(1L);
+        orderStatusStreamService.subscribe(1L);
+
+        //when //then
+        assertThatThrownBy(() -> orderStatusStreamService.subscribe(1L))
+            .isInstanceOf(RejectedExecutionException.class);
+        assertThat(orderStatusStreamService.countSubscriptions(1L)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectSubscriptionOfUnknownCustomer() {
+        //given
+        when(customerRepository.existsById(5L)).thenReturn(false);
+
+        //when //then
+        assertThatThrownBy(() -> orderStatusStreamService.subscribe(5L))
+            .isInstanceOf(ResponseStatusException.class)
+            .hasMessageContaining("Customer with customerId 5 not found");
+        assertThat(orderStatusStreamService.countSubscriptions(5L)).isZero();
+    }
+}
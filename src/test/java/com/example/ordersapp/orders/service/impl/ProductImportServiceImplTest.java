@@ -0,0 +1,115 @@
+package com.example.ordersapp.orders.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+import com.example.ordersapp.orders.model.dto.ProductImportRow;
+import com.example.ordersapp.orders.model.dto.ProductImportSummaryDto;
+import com.example.ordersapp.orders.model.enums.FileFormat;
+import com.example.ordersapp.orders.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ProductCatalog productCatalog;
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ProductImportServiceImpl productImportService;
+    private final ByteArrayOutputStream report = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        productImportService = new ProductImportServiceImpl(productRepository, productCatalog, productSearchIndex,
+            transactionTemplate, Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper());
+    }
+
+    @Test
+    void shouldUpsertValidCsvRowsAndReportInvalidOnes() throws IOException {
+        //given
+        String csv = """
+            sku,name,description,price,stockQuantity
+            A-1,"Widget, large","A ""big"" one",12.50,10
+            A-2,Gadget,Small,abc,5
+            A-3,Gizmo,Thing,3.00,-1
+            """;
+
+        //when
+        ProductImportSummaryDto summary = importProducts(FileFormat.CSV, csv);
+
+        //then
+        assertThat(summary).isEqualTo(new ProductImportSummaryDto(3, 1, 2));
+        verify(productRepository).upsertAllBySku(List.of(
+            new ProductImportRow("A-1", "Widget, large", "A \"big\" one", new BigDecimal("12.50"), 10)));
+        verify(productCatalog).evictAll();
+        verify(productSearchIndex).rebuild();
+        assertThat(reportLines()).hasSize(3)
+            .satisfies(lines -> assertThat(lines[0]).startsWith("{\"row\":2,\"sku\":\"A-2\",\"error\":"))
+            .satisfies(lines -> assertThat(lines[1])
+                .isEqualTo("{\"row\":3,\"sku\":\"A-3\",\"error\":\"stockQuantity must be greater than or equal to 0\"}"))
+            .satisfies(lines -> assertThat(lines[2]).isEqualTo("{\"rows\":3,\"imported\":1,\"failed\":2}"));
+    }
+
+    @Test
+    void shouldRetryRejectedChunkRowByRow() throws IOException {
+        //given
+        String ndjson = """
+            {"sku":"B-1","name":"Bolt","description":"M8","price":0.5,"stockQuantity":100}
+            {"sku":"B-2","name":"Nut","description":"M8","price":0.2,"stockQuantity":100}
+            """;
+        ProductImportRow nut = new ProductImportRow("B-2", "Nut", "M8", new BigDecimal("0.2"), 100);
+        doThrow(new DataIntegrityViolationException("rejected")).when(productRepository)
+            .upsertAllBySku(anyList());
+        doAnswer(invocation -> null).when(productRepository).upsertAllBySku(List.of(
+            new ProductImportRow("B-1", "Bolt", "M8", new BigDecimal("0.5"), 100)));
+
+        //when
+        ProductImportSummaryDto summary = importProducts(FileFormat.NDJSON, ndjson);
+
+        //then
+        assertThat(summary).isEqualTo(new ProductImportSummaryDto(2, 1, 1));
+        verify(productRepository).upsertAllBySku(List.of(nut));
+        assertThat(reportLines()).containsExactly(
+            "{\"row\":2,\"sku\":\"B-2\",\"error\":\"rejected\"}",
+            "{\"rows\":2,\"imported\":1,\"failed\":1}");
+    }
+
+    private ProductImportSummaryDto importProducts(FileFormat format, String content) throws IOException {
+        return productImportService.importProducts(
+            new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format, report);
+    }
+
+    private String[] reportLines() {
+        return report.toString(StandardCharsets.UTF_8).split("\n");
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.ordersapp.orders.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.example.ordersapp.config.ProductSearchProperties;
+import com.example.ordersapp.orders.model.Product;
+import com.example.ordersapp.orders.model.dto.projection.ProductCatalogRow;
+import com.example.ordersapp.orders.model.enums.ProductMatchMode;
+import com.example.ordersapp.orders.repository.ProductRepository;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    private ProductSearchIndex productSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        productSearchIndex = new ProductSearchIndex(productRepository,
+            new ProductSearchProperties(Duration.ofMinutes(5)));
+        when(productRepository.findAllCatalogRows()).thenReturn(List.of(
+            row(1L, "Laptop gamingowy", "Laptop z szybką kartą graficzną"),
+            row(2L, "Torba", "Torba na laptop"),
+            row(3L, "Głośnik bezprzewodowy", "Mały głośnik"),
+            row(4L, "Laptop", "Lekki"),
+            row(5L, "Kabel USB-C", "Kabel do ładowania")));
+        productSearchIndex.rebuild();
+    }
+
+    @Test
+    void shouldMatchWholeNameIgnoringCaseAndAccents() {
+        //when //then
+        assertThat(productSearchIndex.search("GLOSNIK bezprzewodowy", ProductMatchMode.EXACT)).containsExactly(3L);
+        assertThat(productSearchIndex.search("kabel usb-c", ProductMatchMode.EXACT)).containsExactly(5L);
+        assertThat(productSearchIndex.search("Głośnik", ProductMatchMode.EXACT)).isEmpty();
+    }
+
+    @Test
+    void shouldNotIgnoreSpacingAndPunctuationInExactMatches() {
+        //when //then
+        assertThat(productSearchIndex.search("Głośnik  bezprzewodowy", ProductMatchMode.EXACT)).isEmpty();
+        assertThat(productSearchIndex.search("Kabel USB C", ProductMatchMode.EXACT)).isEmpty();
+        assertThat(productSearchIndex.search("Kabel USB C", ProductMatchMode.PREFIX)).containsExactly(5L);
+    }
+
+    @Test
+    void shouldRankNameMatchesBeforeDescriptionMatches() {
+        //when //then
+        assertThat(productSearchIndex.search("lap", ProductMatchMode.PREFIX)).containsExactly(4L, 1L, 2L);
+        assertThat(productSearchIndex.search("gaming", ProductMatchMode.PREFIX)).containsExactly(1L);
+        assertThat(productSearchIndex.search("top", ProductMatchMode.PREFIX)).isEmpty();
+        assertThat(productSearchIndex.search("top", ProductMatchMode.SUBSTRING)).containsExactly(4L, 1L, 2L);
+        assertThat(productSearchIndex.search("graficzna", ProductMatchMode.SUBSTRING)).containsExactly(1L);
+    }
+
+    @Test
+    void shouldTolerateTyposInEveryWord() {
+        //when //then
+        assertThat(productSearchIndex.search("lpatop", ProductMatchMode.FUZZY)).containsExactly(4L, 1L, 2L);
+        assertThat(productSearchIndex.search("lpatop gamnigowy", ProductMatchMode.FUZZY)).containsExactly(1L);
+        assertThat(productSearchIndex.search("glosnk", ProductMatchMode.FUZZY)).containsExactly(3L);
+        assertThat(productSearchIndex.search("mouse", ProductMatchMode.FUZZY)).isEmpty();
+    }
+
+    @Test
+    void shouldApplyProductWritesOutsideOfTransactionImmediately() {
+        //given
+        Product product = new Product();
+        product.setId(2L);
+        product.setName("Plecak");
+        product.setDescription("Plecak podróżny");
+
+        //when
+        productSearchIndex.index(product);
+        productSearchIndex.remove(4L);
+
+        //then
+        assertThat(productSearchIndex.search("torba", ProductMatchMode.SUBSTRING)).isEmpty();
+        assertThat(productSearchIndex.search("podrozny", ProductMatchMode.SUBSTRING)).containsExactly(2L);
+        assertThat(productSearchIndex.search("laptop", ProductMatchMode.EXACT)).isEmpty();
+    }
+
+    @Test
+    void shouldKeepWritesCommittedWhileRebuildReadsDatabase() {
+        //given
+        Product product = new Product();
+        product.setId(6L);
+        product.setName("Mysz");
+        product.setDescription("Mysz bezprzewodowa");
+        when(productRepository.findAllCatalogRows()).thenAnswer(invocation -> {
+            productSearchIndex.index(product);
+            productSearchIndex.remove(2L);
+            return List.of(
+                row(2L, "Torba", "Torba na laptop"),
+                row(4L, "Laptop", "Lekki"));
+        });
+
+        //when
+        productSearchIndex.rebuild();
+
+        //then
+        assertThat(productSearchIndex.search("mysz", ProductMatchMode.EXACT)).containsExactly(6L);
+        assertThat(productSearchIndex.search("torba", ProductMatchMode.EXACT)).isEmpty();
+        assertThat(productSearchIndex.search("laptop", ProductMatchMode.EXACT)).containsExactly(4L);
+    }
+
+    private static ProductCatalogRow row(Long id, String name, String description) {
+        return new ProductCatalogRow(id, null, name, description, BigDecimal.TEN);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.ordersapp.orders.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ordersapp.TestcontainersConfiguration;
+import com.example.ordersapp.orders.model.Product;
+import com.example.ordersapp.orders.model.dto.ProductDto;
+import com.example.ordersapp.orders.repository.ProductRepository;
+import com.example.ordersapp.orders.service.ProductService;
+import com.example.ordersapp.orders.service.StockReservationService;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+@ActiveProfiles("l2-cache")
+class ProductSecondLevelCacheTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private StockReservationService stockReservationService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        productId = productRepository.save(createProduct()).getId();
+        readProduct();
+    }
+
+    @Test
+    void shouldKeepCachedProductInLineWithDatabaseAfterStockChange() {
+        //when
+        transactionTemplate.executeWithoutResult(status -> stockReservationService.reserve(Map.of(productId, 3)));
+
+        //then
+        assertCachedProductMatchesDatabase();
+    }
+
+    @Test
+    void shouldKeepCachedProductInLineWithDatabaseAfterConcurrentPatch() throws Exception {
+        //given
+        CountDownLatch reserved = new CountDownLatch(1);
+        CountDownLatch staleRead = new CountDownLatch(1);
+        CompletableFuture<Void> reservation = CompletableFuture.runAsync(() ->
+            transactionTemplate.executeWithoutResult(status -> {
+                stockReservationService.reserve(Map.of(productId, 3));
+                reserved.countDown();
+                await(staleRead);
+            }));
+        reserved.await();
+
+        //when
+        // Loads the stock from before the reservation, which must not make it into the cache
+        readProduct();
+        staleRead.countDown();
+        // Waits for the reservation's row lock, then retries on the version the reservation bumped
+        productService.updateProductPartially(productId, pricePatch("12.99"), null);
+        reservation.get();
+
+        //then
+        Product product = assertCachedProductMatchesDatabase();
+        assertThat(product.getPrice()).isEqualByComparingTo("12.99");
+        assertThat(productService.updateProductPartially(productId, pricePatch("11.99"), product.getVersion()))
+            .isPresent();
+    }
+
+    private Product assertCachedProductMatchesDatabase() {
+        readProduct();
+        assertThat(entityManagerFactory.getCache().contains(Product.class, productId)).isTrue();
+        Product product = readProduct();
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+            "SELECT stock_quantity, version FROM products WHERE id = ?", productId);
+        assertThat(product.getStockQuantity()).isEqualTo(row.get("stock_quantity"));
+        assertThat(product.getVersion()).isEqualTo(row.get("version"));
+        return product;
+    }
+
+    private Product readProduct() {
+        return transactionTemplate.execute(status -> productRepository.findById(productId).orElseThrow());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static ProductDto pricePatch(String price) {
+        return new ProductDto(null, null, null, null, new BigDecimal(price), null);
+    }
+
+    private static Product createProduct() {
+        Product product = new Product();
+        product.setName("Cached product");
+        product.setDescription("Second-level cache test product");
+        product.setPrice(new BigDecimal("9.99"));
+        product.setStockQuantity(100);
+        return product;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.ordersapp.orders.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ordersapp.orders.model.dto.DailySalesDto;
+import com.example.ordersapp.orders.model.dto.SalesFigures;
+import com.example.ordersapp.orders.model.dto.projection.DailyPaymentMethodSalesRow;
+import com.example.ordersapp.orders.model.dto.projection.DailyProductSalesRow;
+import com.example.ordersapp.orders.model.enums.OrderStatus;
+import com.example.ordersapp.orders.model.enums.PaymentMethod;
+import com.example.ordersapp.orders.model.event.OrderSnapshot;
+import com.example.ordersapp.orders.model.event.OrderSnapshot.OrderLine;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SalesRollupDeltaTest {
+
+    private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2024, 5, 1, 23, 59);
+    private static final LocalDate SALES_DATE = ORDER_DATE.toLocalDate();
+
+    @Test
+    void shouldCountProductOrderedOnSeveralLinesAsOneOrder() {
+        //given
+        SalesRollupDelta delta = new SalesRollupDelta();
+
+        //when
+        delta.add(order(OrderStatus.CREATED));
+
+        //then
+        assertThat(delta.dailySales()).containsExactly(new DailySalesDto(SALES_DATE,
+            new SalesFigures(1, 4, new BigDecimal("35.00"), 0, 0, BigDecimal.ZERO)));
+        assertThat(delta.dailyPaymentMethodSales()).containsExactly(new DailyPaymentMethodSalesRow(SALES_DATE,
+            PaymentMethod.CARD, new SalesFigures(1, 4, new BigDecimal("35.00"), 0, 0, BigDecimal.ZERO)));
+        assertThat(delta.dailyProductSales()).containsExactly(
+            new DailyProductSalesRow(SALES_DATE, 1L, new SalesFigures(1, 3, new BigDecimal("30.00"), 0, 0,
+                BigDecimal.ZERO)),
+            new DailyProductSalesRow(SALES_DATE, 2L, new SalesFigures(1, 1, new BigDecimal("5.00"), 0, 0,
+                BigDecimal.ZERO)));
+    }
+
+    @Test
+    void shouldOnlyRealizeRevenueWhenOrderIsDelivered() {
+        //given
+        SalesRollupDelta delta = new SalesRollupDelta();
+
+        //when
+        delta.subtract(order(OrderStatus.SENT));
+        delta.add(order(OrderStatus.DELIVERED));
+
+        //then
+        assertThat(delta.dailySales()).containsExactly(new DailySalesDto(SALES_DATE,
+            new SalesFigures(0, 0, new BigDecimal("0.00"), 1, 4, new BigDecimal("35.00"))));
+        assertThat(delta.dailyProductSales()).extracting(DailyProductSalesRow::productId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void shouldLeaveRollupsUntouchedWhenStatusChangeKeepsFigures() {
+        //given
+        SalesRollupDelta delta = new SalesRollupDelta();
+
+        //when
+        delta.subtract(order(OrderStatus.CREATED));
+        delta.add(order(OrderStatus.ACCEPTED));
+
+        //then
+        assertThat(delta.dailySales()).isEmpty();
+        assertThat(delta.dailyPaymentMethodSales()).isEmpty();
+        assertThat(delta.dailyProductSales()).isEmpty();
+    }
+
+    private static OrderSnapshot order(OrderStatus status) {
+        return new OrderSnapshot(1L, 7L, status, PaymentMethod.CARD, ORDER_DATE, 4, new BigDecimal("35.00"), List.of(
+            new OrderLine(2L, 1, new BigDecimal("5.00")),
+            new OrderLine(1L, 2, new BigDecimal("10.00")),
+            new OrderLine(1L, 1, new BigDecimal("10.00"))));
+    }
+}
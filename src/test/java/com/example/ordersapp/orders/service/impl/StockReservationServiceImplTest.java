@@ -0,0 +1,195 @@
+package com.example.ordersapp.orders.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.ordersapp.orders.model.ProductStockShard;
+import com.example.ordersapp.orders.model.ProductStockShardId;
+import com.example.ordersapp.orders.model.dto.projection.StockShardCount;
+import com.example.ordersapp.orders.repository.ProductRepository;
+import com.example.ordersapp.orders.repository.ProductStockShardRepository;
+import jakarta.validation.ValidationException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ProductStockShardRepository productStockShardRepository;
+    @InjectMocks
+    private StockReservationServiceImpl stockReservationService;
+
+    @Test
+    void shouldReserveProductsInAscendingIdOrder() {
+        //given
+        when(productRepository.subtractFromStock(1L, 2)).thenReturn(1);
+        when(productRepository.subtractFromStock(2L, 3)).thenReturn(1);
+        when(productRepository.subtractFromStock(3L, 1)).thenReturn(1);
+
+        //when
+        stockReservationService.reserve(Map.of(3L, 1, 1L, 2, 2L, 3));
+
+        //then
+        InOrder inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).subtractFromStock(1L, 2);
+        inOrder.verify(productRepository).subtractFromStock(2L, 3);
+        inOrder.verify(productRepository).subtractFromStock(3L, 1);
+    }
+
+    @Test
+    void shouldReleaseReservedProductsWhenStockIsInsufficient() {
+        //given
+        when(productRepository.subtractFromStock(1L, 2)).thenReturn(1);
+        when(productRepository.subtractFromStock(2L, 3)).thenReturn(0);
+        when(productRepository.existsById(2L)).thenReturn(true);
+
+        //when //then
+        assertThatThrownBy(() -> stockReservationService.reserve(Map.of(1L, 2, 2L, 3, 3L, 1)))
+            .isInstanceOf(ResponseStatusException.class)
+            .hasMessageContaining("Insufficient stock for product id: 2");
+        verify(productRepository).addToStock(1L, 2);
+        verify(productRepository, never()).subtractFromStock(3L, 1);
+    }
+
+    @Test
+    void shouldRejectUnknownProduct() {
+        //given
+        when(productRepository.subtractFromStock(5L, 1)).thenReturn(0);
+        when(productRepository.existsById(5L)).thenReturn(false);
+
+        //when //then
+        assertThatThrownBy(() -> stockReservationService.reserve(Map.of(5L, 1)))
+            .isInstanceOf(ValidationException.class)
+            .hasMessage("Invalid product id: 5");
+    }
+
+    @Test
+    void shouldRejectQuantityBelowOneWithoutTouchingStock() {
+        //when //then
+        assertThatThrownBy(() -> stockReservationService.reserve(Map.of(1L, 2, 2L, -5)))
+            .isInstanceOf(ValidationException.class)
+            .hasMessage("Quantity must be at least 1 for product id: 2");
+        verify(productRepository, never()).subtractFromStock(any(), anyInt());
+    }
+
+    @Test
+    void shouldTakeShardedStockFromSingleShard() {
+        //given
+        ProductStockShard shard = new ProductStockShard(new ProductStockShardId(1L, 2), 10);
+        when(productStockShardRepository.countShardsByProductIds(any()))
+            .thenReturn(List.of(new StockShardCount(1L, 4)));
+        when(productStockShardRepository.findFirstUnlockedShard(eq(1L), anyInt(), eq(3)))
+            .thenReturn(Optional.of(shard));
+
+        //when
+        stockReservationService.reserve(Map.of(1L, 3));
+
+        //then
+        assertThat(shard.getQuantity()).isEqualTo(7);
+        verify(productRepository, never()).subtractFromStock(any(), anyInt());
+    }
+
+    @Test
+    void shouldDrainShardsWhenNoSingleShardCoversQuantity() {
+        //given
+        List<ProductStockShard> shards = List.of(
+            new ProductStockShard(new ProductStockShardId(1L, 0), 2),
+            new ProductStockShard(new ProductStockShardId(1L, 1), 3),
+            new ProductStockShard(new ProductStockShardId(1L, 2), 4));
+        when(productStockShardRepository.countShardsByProductIds(any()))
+            .thenReturn(List.of(new StockShardCount(1L, 3)));
+        when(productStockShardRepository.findFirstUnlockedShard(eq(1L), anyInt(), eq(6))).thenReturn(Optional.empty());
+        when(productStockShardRepository.findAllByIdProductIdOrderByIdShardNo(1L)).thenReturn(shards);
+
+        //when
+        stockReservationService.reserve(Map.of(1L, 6));
+
+        //then
+        assertThat(shards).extracting(ProductStockShard::getQuantity).containsExactly(0, 0, 3);
+    }
+
+    @Test
+    void shouldPutStockBackIntoEveryShardItWasTakenFromWhenStockIsInsufficient() {
+        //given
+        List<ProductStockShard> shards = List.of(
+            new ProductStockShard(new ProductStockShardId(1L, 0), 2),
+            new ProductStockShard(new ProductStockShardId(1L, 1), 3),
+            new ProductStockShard(new ProductStockShardId(1L, 2), 4));
+        when(productStockShardRepository.countShardsByProductIds(any()))
+            .thenReturn(List.of(new StockShardCount(1L, 3)));
+        when(productStockShardRepository.findFirstUnlockedShard(eq(1L), anyInt(), eq(6))).thenReturn(Optional.empty());
+        when(productStockShardRepository.findAllByIdProductIdOrderByIdShardNo(1L)).thenReturn(shards);
+        when(productRepository.subtractFromStock(2L, 1)).thenReturn(0);
+        when(productRepository.existsById(2L)).thenReturn(true);
+
+        //when //then
+        assertThatThrownBy(() -> stockReservationService.reserve(Map.of(1L, 6, 2L, 1)))
+            .isInstanceOf(ResponseStatusException.class)
+            .hasMessageContaining("Insufficient stock for product id: 2");
+        assertThat(shards).extracting(ProductStockShard::getQuantity).containsExactly(2, 3, 4);
+        verify(productRepository, never()).addToStock(any(), anyInt());
+    }
+
+    @Test
+    void shouldReserveFromShardsOfProductShardedSinceShardsWereCounted() {
+        //given
+        List<ProductStockShard> shards = List.of(
+            new ProductStockShard(new ProductStockShardId(1L, 0), 2),
+            new ProductStockShard(new ProductStockShardId(1L, 1), 2));
+        when(productRepository.subtractFromStock(1L, 3)).thenReturn(0);
+        when(productStockShardRepository.findAllByIdProductIdOrderByIdShardNo(1L)).thenReturn(shards);
+
+        //when
+        stockReservationService.reserve(Map.of(1L, 3));
+
+        //then
+        assertThat(shards).extracting(ProductStockShard::getQuantity).containsExactly(0, 1);
+    }
+
+    @Test
+    void shouldReserveFromProductUnshardedSinceShardsWereCounted() {
+        //given
+        when(productStockShardRepository.countShardsByProductIds(any()))
+            .thenReturn(List.of(new StockShardCount(1L, 4)));
+        when(productStockShardRepository.findFirstUnlockedShard(eq(1L), anyInt(), eq(3))).thenReturn(Optional.empty());
+        when(productRepository.subtractFromStock(1L, 3)).thenReturn(1);
+
+        //when
+        stockReservationService.reserve(Map.of(1L, 3));
+
+        //then
+        verify(productRepository).subtractFromStock(1L, 3);
+    }
+
+    @Test
+    void shouldReleaseIntoProductUnshardedSinceShardsWereCounted() {
+        //given
+        when(productStockShardRepository.countShardsByProductIds(any()))
+            .thenReturn(List.of(new StockShardCount(1L, 4)));
+        when(productStockShardRepository.findLockedById(any())).thenReturn(Optional.empty());
+
+        //when
+        stockReservationService.release(Map.of(1L, 3));
+
+        //then
+        verify(productRepository).addToStock(1L, 3);
+    }
+}